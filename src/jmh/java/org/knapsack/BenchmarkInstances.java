@@ -0,0 +1,23 @@
+package org.knapsack;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+final class BenchmarkInstances
+{
+    private BenchmarkInstances() {}
+
+    // Instância aleatória reprodutível com capacidade igual à metade do peso total.
+    static KnapsackInstance random(int size, long seed) {
+        RandomGenerator random = RandomGeneratorFactory.of("L64X128MixRandom").create(seed);
+        double[] weights = new double[size];
+        double[] values = new double[size];
+        double totalWeight = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1 + random.nextInt(100);
+            values[i] = 1 + random.nextInt(100);
+            totalWeight += weights[i];
+        }
+        return new KnapsackInstance(weights, values, totalWeight / 2);
+    }
+}
@@ -0,0 +1,44 @@
+package org.knapsack;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+public class FitnessBenchmark
+{
+    @Param({"10", "1000", "100000", "1000000"})
+    public int genomeSize;
+
+    private Chromosome chromosome;
+
+    @Setup
+    public void setup() {
+        KnapsackInstance instance = BenchmarkInstances.random(genomeSize, 42);
+        RandomGenerator random = RandomGeneratorFactory.of("L64X128MixRandom").create(7);
+        chromosome = new Chromosome(instance);
+        chromosome.initialize(random);
+    }
+
+    @Benchmark
+    public double calculateFitness() {
+        chromosome.calculateFitness();
+        return chromosome.getFitness();
+    }
+}
@@ -0,0 +1,73 @@
+package org.knapsack;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+public class OperatorBenchmark
+{
+    @Param({"10", "1000", "100000", "1000000"})
+    public int genomeSize;
+
+    @Param({"150", "2000"})
+    public int populationSize;
+
+    private GA ga;
+    private RandomGenerator random;
+    private Chromosome parent1;
+    private Chromosome parent2;
+    private Chromosome mutant;
+
+    @Setup
+    public void setup() {
+        KnapsackInstance instance = BenchmarkInstances.random(genomeSize, 42);
+        random = RandomGeneratorFactory.of("L64X128MixRandom").create(7);
+
+        ga = new GA(populationSize, Config.TAXA_CROSSOVER, Config.TAXA_MUTACAO,
+                Config.ELITISMO, Config.GERACOES, 0.001);
+        ga.setSeed(11);
+        ga.prepare(instance);
+
+        parent1 = ga.tournamentSelection(3, random);
+        parent2 = ga.tournamentSelection(3, random);
+        mutant = new Chromosome(parent1);
+    }
+
+    @Benchmark
+    public Chromosome[] crossover() {
+        return ga.crossover(parent1, parent2, random);
+    }
+
+    @Benchmark
+    public double mutate() {
+        ga.mutate(mutant, random);
+        return mutant.getFitness();
+    }
+
+    @Benchmark
+    public Chromosome tournamentSelection() {
+        return ga.tournamentSelection(3, random);
+    }
+
+    @Benchmark
+    public double calculateDiversity() {
+        return ga.calculateDiversity();
+    }
+}
@@ -0,0 +1,54 @@
+package org.knapsack;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Execução completa do GA em cada motor (GA.Engine); o critério de convergência fica
+// desligado (limiar negativo) para que todas as iterações processem o mesmo número de
+// gerações.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+public class RunBenchmark
+{
+    @Param({"10", "1000", "100000", "1000000"})
+    public int genomeSize;
+
+    @Param({"150", "2000"})
+    public int populationSize;
+
+    @Param({"20"})
+    public int generations;
+
+    @Param({"STANDARD", "BUFFERED", "OFF_HEAP"})
+    public GA.Engine engine;
+
+    private KnapsackInstance instance;
+
+    @Setup
+    public void setup() {
+        instance = BenchmarkInstances.random(genomeSize, 42);
+    }
+
+    @Benchmark
+    public Chromosome run() {
+        GA ga = new GA(populationSize, Config.TAXA_CROSSOVER, Config.TAXA_MUTACAO,
+                Config.ELITISMO, generations, -1);
+        ga.setSeed(11);
+        ga.setEngine(engine);
+        return ga.run(instance);
+    }
+}
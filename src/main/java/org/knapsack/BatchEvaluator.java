@@ -0,0 +1,21 @@
+package org.knapsack;
+
+// Avaliação completa de genomas: soma uma coluna (valor ou peso) sobre os genes ativos,
+// preenchendo a soma de cada palavra de 64 genes e devolvendo o total.
+@FunctionalInterface
+public interface BatchEvaluator
+{
+    double fill(long[] words, double[] column, double[] wordSums);
+
+    // Avalia de uma vez os genomas [from, to) de uma população em matrizes.
+    default void evaluate(KnapsackInstance instance, long[][] genomes, int from, int to,
+                          double[][] valueSums, double[][] weightSums,
+                          double[] totalValues, double[] totalWeights) {
+        double[] values = instance.values();
+        double[] weights = instance.weights();
+        for (int g = from; g < to; g++) {
+            totalValues[g] = fill(genomes[g], values, valueSums[g]);
+            totalWeights[g] = fill(genomes[g], weights, weightSums[g]);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.knapsack;
+
+// Escolhe na inicialização o avaliador vetorial (jdk.incubator.vector) quando o módulo
+// está presente na JVM, e o escalar caso contrário. -Dknapsack.avaliacao=escalar força
+// o escalar.
+public final class BatchEvaluators
+{
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private static String description;
+
+    public static final BatchEvaluator DEFAULT = select();
+
+    private BatchEvaluators() {}
+
+    public static BatchEvaluator scalar() {
+        return WordSums::fill;
+    }
+
+    public static String description() { return description; }
+
+    private static BatchEvaluator select() {
+        boolean forceScalar = "escalar".equalsIgnoreCase(System.getProperty("knapsack.avaliacao"));
+        if (!forceScalar && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                VectorBatchEvaluator vector = new VectorBatchEvaluator();
+                description = "vetorial (" + vector.lanes() + " lanes)";
+                return vector;
+            } catch (LinkageError | RuntimeException e) {
+                // Sem suporte do hardware ou da JVM: cai para o escalar.
+            }
+        }
+        description = "escalar";
+        return scalar();
+    }
+}
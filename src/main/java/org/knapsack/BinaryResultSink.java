@@ -0,0 +1,226 @@
+package org.knapsack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Arquivo binário só de acréscimo: [magia:int][versão:int] e, por execução,
+// ['R':byte][sequência:long][rótulo:UTF][semente:long][melhor, média, pior, tempo:double]
+// [geração de convergência:int][ótimo:boolean][acertos, falhas do cache:long][gap:double]
+// [gerações até o ótimo:int][tempo até o ótimo:double][tempo de CPU:boolean][gerações:int]
+// [melhor, média, pior, diversidade:double... por geração].
+// O formato é por linha (um registro completo por execução), não colunar: cada execução é
+// gravada assim que termina, sem reter linhas para montar blocos de colunas. O buffer só
+// agrupa as escritas de um registro: cada accept() termina com flush, então uma queda do
+// processo perde no máximo o registro em curso. Para análise colunar, converta com read().
+// Abrir um arquivo existente continua a gravação no fim, com a sequência retomada; um
+// registro final incompleto (queda no meio de uma gravação) é cortado antes.
+// Arquivos da versão 1 (sem o indicador de tempo de CPU) ainda são lidos, mas não
+// recebem novos registros.
+public class BinaryResultSink implements ResultSink
+{
+    static final int MAGIC = 0x4B524553; // "KRES"
+    static final int VERSION = 2;
+    private static final byte RECORD = 'R';
+
+    private final DataOutputStream out;
+    private final boolean includeHistory;
+    private long sequence;
+
+    public BinaryResultSink(Path path, boolean includeHistory) throws IOException {
+        if (Files.exists(path) && Files.size(path) > 0) {
+            sequence = recover(path);
+        }
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+        this.includeHistory = includeHistory;
+        if (!exists) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+    }
+
+    @Override
+    public boolean includesHistory() {
+        return includeHistory;
+    }
+
+    @Override
+    public synchronized void accept(String label, long seed, Experiment.ExperimentResult result,
+                                    double[] best, double[] average, double[] worst,
+                                    double[] diversity) throws IOException {
+        out.writeByte(RECORD);
+        out.writeLong(sequence++);
+        out.writeUTF(label);
+        out.writeLong(seed);
+        out.writeDouble(result.bestFitness);
+        out.writeDouble(result.averageFitness);
+        out.writeDouble(result.worstFitness);
+        out.writeDouble(result.executionTimeMs);
+        out.writeInt(result.convergenceGeneration);
+        out.writeBoolean(result.foundOptimal);
+        out.writeLong(result.cacheHits);
+        out.writeLong(result.cacheMisses);
+        out.writeDouble(result.optimalityGap);
+        out.writeInt(result.generationsToOptimum);
+        out.writeDouble(result.timeToOptimumMs);
+        out.writeBoolean(result.cpuTime);
+
+        int generations = includeHistory ? best.length : 0;
+        out.writeInt(generations);
+        for (int g = 0; g < generations; g++) {
+            out.writeDouble(best[g]);
+            out.writeDouble(average[g]);
+            out.writeDouble(worst[g]);
+            out.writeDouble(diversity[g]);
+        }
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    // Lê o arquivo em sequência, repassando cada execução a 'target' (ex.: um CsvResultSink
+    // para converter); com target null só conta. Só um registro é mantido em memória.
+    public static long read(Path path, ResultSink target) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Não é um arquivo de resultados: " + path);
+            }
+            int version = in.readInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Versão de arquivo de resultados não suportada: "
+                        + version);
+            }
+
+            long count = 0;
+            int marker;
+            while ((marker = in.read()) >= 0) {
+                if (marker != RECORD) {
+                    throw new IOException("Registro inválido após " + count
+                            + " execuções em " + path);
+                }
+                try {
+                    readRecord(in, version, target);
+                } catch (EOFException e) {
+                    throw new IOException("Registro truncado após " + count
+                            + " execuções em " + path, e);
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+
+    // Conta os registros completos de um arquivo a continuar e corta o que vier depois do
+    // último deles. Um cabeçalho incompleto esvazia o arquivo, que recebe um novo.
+    private static long recover(Path path) throws IOException {
+        long size = Files.size(path);
+        long count = 0;
+        long end = 0;
+        if (size >= 2 * Integer.BYTES) {
+            try (CountingInputStream counting = new CountingInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+                 DataInputStream in = new DataInputStream(counting)) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Não é um arquivo de resultados: " + path);
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Arquivo de resultados da versão " + version
+                            + " não aceita novos registros: " + path);
+                }
+
+                end = counting.count;
+                int marker;
+                while ((marker = in.read()) >= 0) {
+                    if (marker != RECORD) {
+                        throw new IOException("Registro inválido após " + count
+                                + " execuções em " + path);
+                    }
+                    try {
+                        readRecord(in, VERSION, null);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    count++;
+                    end = counting.count;
+                }
+            }
+        }
+
+        if (end < size) {
+            System.err.println("Cortando " + (size - end) + " bytes incompletos após "
+                    + count + " execuções em " + path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+            }
+        }
+        return count;
+    }
+
+    private static void readRecord(DataInputStream in, int version, ResultSink target)
+            throws IOException {
+        in.readLong();
+        String label = in.readUTF();
+        long seed = in.readLong();
+        Experiment.ExperimentResult result = new Experiment.ExperimentResult(
+                in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                in.readInt(), in.readBoolean(), in.readLong(), in.readLong(),
+                in.readDouble(), in.readInt(), in.readDouble(),
+                version >= 2 && in.readBoolean());
+
+        int generations = in.readInt();
+        double[] best = new double[generations];
+        double[] average = new double[generations];
+        double[] worst = new double[generations];
+        double[] diversity = new double[generations];
+        for (int g = 0; g < generations; g++) {
+            best[g] = in.readDouble();
+            average[g] = in.readDouble();
+            worst[g] = in.readDouble();
+            diversity[g] = in.readDouble();
+        }
+
+        if (target != null) {
+            target.accept(label, seed, result, best, average, worst, diversity);
+        }
+    }
+
+    // Conta os bytes consumidos, para saber onde termina o último registro completo.
+    private static final class CountingInputStream extends FilterInputStream
+    {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
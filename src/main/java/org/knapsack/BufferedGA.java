@@ -0,0 +1,378 @@
+package org.knapsack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Motor alternativo ao GA: duas matrizes de população pré-alocadas (atual/próxima)
+// trocadas a cada geração, de modo que o laço de gerações não aloca objetos. As únicas
+// exceções são opcionais: o GenerationStats de cada geração, criado só se houver
+// listeners ou histórico (setRecordHistory), e o crescimento do histórico.
+// Selecionado com GA.setEngine(GA.Engine.BUFFERED) (ou Config.MOTOR).
+public class BufferedGA
+{
+    private final int populationSize;
+    private final double crossoverRate;
+    private final int elitismCount;
+    private final int maxGenerations;
+    private final double convergenceThreshold;
+    private final MutationSampler mutationSampler;
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private RandomGenerator random;
+
+    private KnapsackInstance instance;
+
+    private long[][] current;
+    private long[][] next;
+    private double[] fitness;
+    private double[] nextFitness;
+    private double[] weight;
+    private double[] nextWeight;
+    private double[] value;
+    private double[] nextValue;
+    private double[][] valueSums;
+    private double[][] nextValueSums;
+    private double[][] weightSums;
+    private double[][] nextWeightSums;
+    private int[] eliteIndices;
+    private final EliteSelector eliteSelector;
+
+    private HistoryRecorder history;
+    private boolean recordHistory = true;
+    private double[] recentBest;
+    private double lastDiversity;
+    private int convergenceGeneration;
+    private int diversityInterval = 1;
+    private LocusCounter locusCounter;
+    private double targetFitness = Double.POSITIVE_INFINITY;
+    private double targetGap;
+    private double upperBound;
+
+    // Última geração publicada. Fica em campos para que, sem listeners nem histórico, nenhum
+    // GenerationStats seja criado por geração; getLastStats() o monta quando pedido.
+    private int lastGeneration = -1;
+    private double lastBest;
+    private double lastAverage;
+    private double lastWorst;
+    private long lastEvaluations;
+    private long lastTotalEvaluations;
+    private long lastStatisticsNanos;
+    private long lastDiversityNanos;
+    private long lastBreedingNanos;
+
+    public BufferedGA(int populationSize, double crossoverRate, double mutationRate,
+                      int elitismCount, int maxGenerations, double convergenceThreshold) {
+        this.populationSize = populationSize;
+        this.crossoverRate = crossoverRate;
+        this.elitismCount = Math.min(elitismCount, populationSize);
+        this.maxGenerations = maxGenerations;
+        this.convergenceThreshold = convergenceThreshold;
+        this.random = GA.RANDOM_FACTORY.create();
+        this.mutationSampler = new MutationSampler(mutationRate);
+        this.eliteSelector = new EliteSelector(this.elitismCount);
+    }
+
+    public void setSeed(long seed) {
+        this.random = GA.RANDOM_FACTORY.create(seed);
+    }
+
+    // Calcula a diversidade só a cada 'generations' gerações; nas demais repete o último valor.
+    public void setDiversityInterval(int generations) {
+        this.diversityInterval = Math.max(1, generations);
+    }
+
+    // Mesma parada do GA: encerra quando o melhor fica a até 'gap' (relativo) do limite
+    // superior, o menor entre o limite da relaxação linear e o valor alvo.
+    public void setTargetFitness(double fitness) {
+        this.targetFitness = fitness > 0 ? fitness : Double.POSITIVE_INFINITY;
+    }
+
+    public void setTargetGap(double gap) {
+        this.targetGap = Math.max(0, gap);
+    }
+
+    // Guarda o histórico completo das gerações; desligado, getters devolvem vetores vazios.
+    public void setRecordHistory(boolean enabled) {
+        this.recordHistory = enabled;
+    }
+
+    public void addListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+
+    public Chromosome run(KnapsackInstance instance)
+    {
+        allocateBuffers(instance);
+        this.history = recordHistory ? new HistoryRecorder() : null;
+        this.recentBest = new double[11];
+        this.upperBound = Math.min(instance.lpBound(), targetFitness);
+        this.lastGeneration = -1;
+        this.convergenceGeneration = -1;
+        long evaluations = populationSize;
+        long generationEvaluations = populationSize;
+
+        initializePopulation();
+
+        for (int generation = 0; generation < maxGenerations; generation++) {
+            long start = System.nanoTime();
+            double best = Double.NEGATIVE_INFINITY;
+            double worst = Double.POSITIVE_INFINITY;
+            double total = 0;
+            for (double f : fitness) {
+                best = Math.max(best, f);
+                worst = Math.min(worst, f);
+                total += f;
+            }
+            recentBest[generation % recentBest.length] = best;
+            long scanned = System.nanoTime();
+            if (generation % diversityInterval == 0) {
+                lastDiversity = calculateDiversity();
+            }
+            long measured = System.nanoTime();
+
+            if (reachedBound(best) || checkConvergence(generation)) {
+                convergenceGeneration = generation;
+                publish(generation, best, total / populationSize, worst, generationEvaluations,
+                        evaluations, scanned - start, measured - scanned, 0);
+                break;
+            }
+
+            int filled = applyElitism();
+
+            while (filled < populationSize) {
+                int parent1 = tournamentSelection(3);
+                int parent2 = tournamentSelection(3);
+                boolean cross = random.nextDouble() < crossoverRate;
+                int point = cross ? random.nextInt(instance.size()) : 0;
+
+                filled = produceChild(parent1, parent2, cross, point, filled);
+                if (filled < populationSize) {
+                    filled = produceChild(parent2, parent1, cross, point, filled);
+                }
+            }
+            generationEvaluations += populationSize - elitismCount;
+            evaluations += populationSize - elitismCount;
+
+            publish(generation, best, total / populationSize, worst, generationEvaluations,
+                    evaluations, scanned - start, measured - scanned, System.nanoTime() - measured);
+            generationEvaluations = 0;
+
+            swapBuffers();
+        }
+
+        return getBestChromosome();
+    }
+
+    // Reaproveita os buffers entre execuções quando as dimensões não mudam.
+    private void allocateBuffers(KnapsackInstance instance) {
+        int words = Genome.wordCount(instance.size());
+        boolean reuse = current != null && this.instance != null
+                && current[0].length == words;
+        this.instance = instance;
+        if (locusCounter == null || locusCounter.size() != instance.size()) {
+            locusCounter = new LocusCounter(instance.size());
+        }
+        if (reuse) return;
+
+        current = new long[populationSize][words];
+        next = new long[populationSize][words];
+        fitness = new double[populationSize];
+        nextFitness = new double[populationSize];
+        weight = new double[populationSize];
+        nextWeight = new double[populationSize];
+        value = new double[populationSize];
+        nextValue = new double[populationSize];
+        valueSums = new double[populationSize][words];
+        nextValueSums = new double[populationSize][words];
+        weightSums = new double[populationSize][words];
+        nextWeightSums = new double[populationSize][words];
+        eliteIndices = new int[elitismCount];
+    }
+
+    private void initializePopulation() {
+        for (int i = 0; i < populationSize; i++) {
+            Genome.randomize(current[i], instance.size(), random);
+        }
+
+        BatchEvaluators.DEFAULT.evaluate(instance, current, 0, populationSize,
+                valueSums, weightSums, value, weight);
+        for (int i = 0; i < populationSize; i++) {
+            fitness[i] = Chromosome.penalizedFitness(value[i], weight[i], instance.getCapacity());
+        }
+    }
+
+    private int produceChild(int head, int tail, boolean cross, int point, int slot) {
+        long[] child = next[slot];
+        if (cross) {
+            Genome.crossover(current[head], current[tail], point, child);
+            nextValue[slot] = WordSums.crossover(valueSums[head], valueSums[tail], point,
+                    child, instance.values(), nextValueSums[slot]);
+            nextWeight[slot] = WordSums.crossover(weightSums[head], weightSums[tail], point,
+                    child, instance.weights(), nextWeightSums[slot]);
+        } else {
+            copyIndividual(head, slot);
+        }
+        mutate(slot);
+        nextFitness[slot] = Chromosome.penalizedFitness(nextValue[slot], nextWeight[slot],
+                instance.getCapacity());
+        return slot + 1;
+    }
+
+    private void copyIndividual(int from, int slot) {
+        System.arraycopy(current[from], 0, next[slot], 0, next[slot].length);
+        System.arraycopy(valueSums[from], 0, nextValueSums[slot], 0, valueSums[from].length);
+        System.arraycopy(weightSums[from], 0, nextWeightSums[slot], 0, weightSums[from].length);
+        nextFitness[slot] = fitness[from];
+        nextValue[slot] = value[from];
+        nextWeight[slot] = weight[from];
+    }
+
+    private int tournamentSelection(int tournamentSize) {
+        int best = -1;
+
+        for (int i = 0; i < tournamentSize; i++) {
+            int candidate = random.nextInt(populationSize);
+            if (best < 0 || fitness[candidate] > fitness[best]) {
+                best = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    private void mutate(int slot) {
+        long[] words = next[slot];
+        double[] values = instance.values();
+        double[] weights = instance.weights();
+        int size = instance.size();
+
+        for (int i = mutationSampler.next(-1, size, random); i >= 0;
+             i = mutationSampler.next(i, size, random)) {
+            words[i >>> 6] ^= 1L << i;
+            double sign = (words[i >>> 6] & (1L << i)) != 0 ? 1 : -1;
+            nextValueSums[slot][i >>> 6] += sign * values[i];
+            nextWeightSums[slot][i >>> 6] += sign * weights[i];
+            nextValue[slot] += sign * values[i];
+            nextWeight[slot] += sign * weights[i];
+        }
+    }
+
+    private int applyElitism() {
+        int count = eliteSelector.select(fitness, populationSize, eliteIndices);
+        for (int e = 0; e < count; e++) {
+            copyIndividual(eliteIndices[e], e);
+        }
+        return count;
+    }
+
+    private void swapBuffers() {
+        long[][] genomes = current;
+        current = next;
+        next = genomes;
+
+        double[] values = fitness;
+        fitness = nextFitness;
+        nextFitness = values;
+
+        double[] weights = weight;
+        weight = nextWeight;
+        nextWeight = weights;
+
+        double[] totals = value;
+        value = nextValue;
+        nextValue = totals;
+
+        double[][] sums = valueSums;
+        valueSums = nextValueSums;
+        nextValueSums = sums;
+
+        sums = weightSums;
+        weightSums = nextWeightSums;
+        nextWeightSums = sums;
+    }
+
+    private void publish(int generation, double best, double average, double worst,
+                         long evaluations, long totalEvaluations, long statisticsNanos,
+                         long diversityNanos, long breedingNanos) {
+        lastGeneration = generation;
+        lastBest = best;
+        lastAverage = average;
+        lastWorst = worst;
+        lastEvaluations = evaluations;
+        lastTotalEvaluations = totalEvaluations;
+        lastStatisticsNanos = statisticsNanos;
+        lastDiversityNanos = diversityNanos;
+        lastBreedingNanos = breedingNanos;
+        if (history == null && listeners.isEmpty()) return;
+
+        GenerationStats stats = getLastStats();
+        if (history != null) {
+            history.onGeneration(stats);
+        }
+        for (int l = 0; l < listeners.size(); l++) {
+            listeners.get(l).onGeneration(stats);
+        }
+    }
+
+    public GenerationStats getLastStats() {
+        if (lastGeneration < 0) return null;
+        return new GenerationStats(lastGeneration, lastBest, lastAverage, lastWorst,
+                lastDiversity, lastEvaluations, lastTotalEvaluations, lastStatisticsNanos,
+                lastDiversityNanos, lastBreedingNanos);
+    }
+
+    private boolean reachedBound(double best) {
+        return GA.optimalityGap(best, upperBound) <= targetGap + 1e-9;
+    }
+
+    private double calculateDiversity() {
+        locusCounter.reset();
+        for (int i = 0; i < populationSize; i++) {
+            locusCounter.add(current[i]);
+        }
+        return locusCounter.diversity();
+    }
+
+    private boolean checkConvergence(int generation) {
+        if (generation < 10) return false;
+
+        int window = recentBest.length;
+        double improvement = recentBest[generation % window] - recentBest[(generation - 10) % window];
+        return improvement < convergenceThreshold;
+    }
+
+    private Chromosome getBestChromosome() {
+        int best = 0;
+        for (int i = 1; i < populationSize; i++) {
+            if (fitness[i] > fitness[best]) {
+                best = i;
+            }
+        }
+
+        Chromosome chromosome = new Chromosome(instance);
+        long[] words = chromosome.getGenome().words();
+        System.arraycopy(current[best], 0, words, 0, words.length);
+        chromosome.calculateFitness();
+        return chromosome;
+    }
+
+    // Históricos das gerações executadas (vazios se setRecordHistory(false)).
+    public double[] getBestFitnessHistory() {
+        return history != null ? history.getBestFitnessHistory() : new double[0];
+    }
+
+    public double[] getAverageFitnessHistory() {
+        return history != null ? history.getAverageFitnessHistory() : new double[0];
+    }
+
+    public double[] getWorstFitnessHistory() {
+        return history != null ? history.getWorstFitnessHistory() : new double[0];
+    }
+
+    public double[] getDiversityHistory() {
+        return history != null ? history.getDiversityHistory() : new double[0];
+    }
+
+    public int getConvergenceGeneration() { return convergenceGeneration; }
+    public int getMaxGenerations() { return maxGenerations; }
+}
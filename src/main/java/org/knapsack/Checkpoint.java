@@ -0,0 +1,249 @@
+package org.knapsack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Estado de uma execução do GA no início de uma geração, para retomá-la depois.
+// Formato: [magia:int][versão:int][codificação:byte][genes:int][capacidade:double]
+// [geração:int][intervalo:int][semente:long][avaliações:long][avaliações da geração:long]
+// [duplicatas:long][tempo decorrido:long][geração alvo:int][tempo alvo:long]
+// [diversidade:double][janela de convergência:int][double...]
+// [histórico:int][melhor, média, pior, diversidade:double... por geração]
+// [indivíduos:int] e, por indivíduo, as palavras do genoma (long) ou as chaves (float)
+// seguidas do estado da avaliação (ver Chromosome.writeEvaluation)
+// [cache:boolean] e, se houver, as entradas do cache de avaliações (ver FitnessCache.write),
+// para que a retomada encontre os mesmos acertos e as mesmas avaliações guardadas.
+// As contagens lidas são conferidas contra o tamanho do arquivo antes de reservar vetores,
+// então um arquivo corrompido ou truncado dá IOException, não falta de memória.
+final class Checkpoint
+{
+    static final int MAGIC = 0x4B434B50; // "KCKP"
+    static final int VERSION = 3;
+
+    final GA.Encoding encoding;
+    final int genes;
+    final double capacity;
+    final int generation;
+    final int interval;
+    final long seed;
+    final long evaluations;
+    final long generationEvaluations;
+    final long duplicatesReplaced;
+    final long elapsedNanos;
+    final int targetGeneration;
+    final long targetNanos;
+    final double lastDiversity;
+    final double[] recentBest;
+    final double[][] history;
+    final Chromosome[] population;
+    final FitnessCache cache;
+
+    Checkpoint(GA.Encoding encoding, int genes, double capacity, int generation, int interval,
+               long seed, long evaluations, long generationEvaluations, long duplicatesReplaced,
+               long elapsedNanos, int targetGeneration, long targetNanos, double lastDiversity,
+               double[] recentBest, double[][] history, Chromosome[] population,
+               FitnessCache cache) {
+        this.encoding = encoding;
+        this.genes = genes;
+        this.capacity = capacity;
+        this.generation = generation;
+        this.interval = interval;
+        this.seed = seed;
+        this.evaluations = evaluations;
+        this.generationEvaluations = generationEvaluations;
+        this.duplicatesReplaced = duplicatesReplaced;
+        this.elapsedNanos = elapsedNanos;
+        this.targetGeneration = targetGeneration;
+        this.targetNanos = targetNanos;
+        this.lastDiversity = lastDiversity;
+        this.recentBest = recentBest;
+        this.history = history;
+        this.population = population;
+        this.cache = cache;
+    }
+
+    // Grava em um arquivo temporário ao lado do destino e o renomeia por cima, então
+    // quem lê 'path' sempre encontra um checkpoint completo.
+    void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeByte(encoding.ordinal());
+        out.writeInt(genes);
+        out.writeDouble(capacity);
+        out.writeInt(generation);
+        out.writeInt(interval);
+        out.writeLong(seed);
+        out.writeLong(evaluations);
+        out.writeLong(generationEvaluations);
+        out.writeLong(duplicatesReplaced);
+        out.writeLong(elapsedNanos);
+        out.writeInt(targetGeneration);
+        out.writeLong(targetNanos);
+        out.writeDouble(lastDiversity);
+
+        out.writeInt(recentBest.length);
+        for (double best : recentBest) {
+            out.writeDouble(best);
+        }
+
+        int generations = history[0].length;
+        out.writeInt(generations);
+        for (int g = 0; g < generations; g++) {
+            for (double[] series : history) {
+                out.writeDouble(series[g]);
+            }
+        }
+
+        out.writeInt(population.length);
+        for (Chromosome chromosome : population) {
+            if (chromosome instanceof RandomKeyChromosome keyed) {
+                for (int i = 0; i < genes; i++) {
+                    out.writeFloat(keyed.getKey(i));
+                }
+            } else {
+                Genome genome = chromosome.getGenome();
+                for (int w = 0; w < genome.wordCount(); w++) {
+                    out.writeLong(genome.word(w));
+                }
+            }
+            chromosome.writeEvaluation(out);
+        }
+
+        out.writeBoolean(cache != null);
+        if (cache != null) {
+            cache.write(out);
+        }
+    }
+
+    // Reconstrói os indivíduos sobre 'instance', que precisa ser a da execução original;
+    // 'cacheEntries' é o tamanho do cache do GA que vai retomar (0 sem cache).
+    static Checkpoint read(Path path, KnapsackInstance instance, int cacheEntries)
+            throws IOException {
+        long available = Files.size(path);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Não é um checkpoint: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Versão de checkpoint não suportada: " + version);
+            }
+
+            int encodingIndex = in.readByte();
+            if (encodingIndex < 0 || encodingIndex >= GA.Encoding.values().length) {
+                throw new IOException("Codificação inválida no checkpoint: " + encodingIndex);
+            }
+            GA.Encoding encoding = GA.Encoding.values()[encodingIndex];
+            int genes = in.readInt();
+            double capacity = in.readDouble();
+            if (genes != instance.size() || capacity != instance.getCapacity()) {
+                throw new IOException("Checkpoint de outra instância: " + genes + " itens, capacidade "
+                        + capacity);
+            }
+
+            int generation = in.readInt();
+            int interval = in.readInt();
+            long seed = in.readLong();
+            long evaluations = in.readLong();
+            long generationEvaluations = in.readLong();
+            long duplicatesReplaced = in.readLong();
+            long elapsedNanos = in.readLong();
+            int targetGeneration = in.readInt();
+            long targetNanos = in.readLong();
+            double lastDiversity = in.readDouble();
+
+            double[] recentBest = new double[readCount(in, Double.BYTES, available, "janela")];
+            for (int i = 0; i < recentBest.length; i++) {
+                recentBest[i] = in.readDouble();
+            }
+
+            int generations = readCount(in, 4L * Double.BYTES, available, "histórico");
+            double[][] history = new double[4][generations];
+            for (int g = 0; g < generations; g++) {
+                for (double[] series : history) {
+                    series[g] = in.readDouble();
+                }
+            }
+
+            long individualBytes = 1 + (encoding == GA.Encoding.RANDOM_KEY
+                    ? (long) genes * Float.BYTES
+                    : (long) Genome.wordCount(genes) * Long.BYTES);
+            Chromosome[] population = new Chromosome[readCount(in, individualBytes, available,
+                    "população")];
+            for (int p = 0; p < population.length; p++) {
+                population[p] = encoding == GA.Encoding.RANDOM_KEY
+                        ? readKeyed(in, instance)
+                        : readBinary(in, instance);
+            }
+
+            boolean hasCache = in.readBoolean();
+            if (hasCache != cacheEntries > 0) {
+                throw new IOException(hasCache
+                        ? "Checkpoint com cache de avaliações para um GA sem cache"
+                        : "Checkpoint sem cache de avaliações para um GA com cache");
+            }
+            // Cada entrada do cache ocupa 25 bytes (chave, valor, peso e referência).
+            FitnessCache cache = hasCache ? FitnessCache.read(in, cacheEntries, available / 25)
+                    : null;
+
+            return new Checkpoint(encoding, genes, capacity, generation, interval, seed,
+                    evaluations, generationEvaluations, duplicatesReplaced, elapsedNanos,
+                    targetGeneration, targetNanos, lastDiversity, recentBest, history, population,
+                    cache);
+        }
+    }
+
+    // Lê uma contagem e confere se cabe no arquivo com pelo menos 'bytesPerItem' por item.
+    private static int readCount(DataInputStream in, long bytesPerItem, long available,
+                                 String what) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count * bytesPerItem > available) {
+            throw new IOException("Checkpoint inválido: " + what + " com " + count + " itens");
+        }
+        return count;
+    }
+
+    private static Chromosome readBinary(DataInputStream in, KnapsackInstance instance)
+            throws IOException {
+        Chromosome chromosome = new Chromosome(instance);
+        long[] words = chromosome.getGenome().words();
+        for (int w = 0; w < words.length; w++) {
+            words[w] = in.readLong();
+        }
+        chromosome.readEvaluation(in);
+        return chromosome;
+    }
+
+    private static Chromosome readKeyed(DataInputStream in, KnapsackInstance instance)
+            throws IOException {
+        float[] keys = new float[instance.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = in.readFloat();
+        }
+        RandomKeyChromosome keyed = RandomKeyChromosome.withKeys(instance, keys);
+        keyed.readEvaluation(in);
+        return keyed;
+    }
+}
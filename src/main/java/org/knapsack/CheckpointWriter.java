@@ -0,0 +1,79 @@
+package org.knapsack;
+
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Grava checkpoints em uma thread própria, fora do laço de gerações. Há no máximo uma
+// gravação em andamento: se a anterior ainda não terminou, o novo checkpoint é descartado
+// em vez de enfileirado, então o custo para o GA fica limitado à captura do estado.
+// Uma gravação que falha também conta como descartada: a falha é registrada e a
+// execução segue, já que o checkpoint é só uma proteção contra interrupções.
+final class CheckpointWriter implements AutoCloseable
+{
+    private final Path path;
+    private final ExecutorService executor;
+    private Future<?> pending;
+    private long written;
+    private long skipped;
+
+    CheckpointWriter(Path path) {
+        this.path = path;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Devolve false quando o checkpoint foi descartado por haver outro sendo gravado.
+    boolean submit(Checkpoint checkpoint) {
+        if (pending != null) {
+            if (!pending.isDone()) {
+                skipped++;
+                return false;
+            }
+            awaitPending();
+        }
+        pending = executor.submit(() -> {
+            checkpoint.write(path);
+            return null;
+        });
+        return true;
+    }
+
+    // Espera a última gravação terminar e encerra a thread.
+    @Override
+    public void close() {
+        try {
+            if (pending != null) {
+                awaitPending();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void awaitPending() {
+        try {
+            pending.get();
+            written++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            skipped++;
+            System.err.println("Gravação de checkpoint interrompida: " + path);
+        } catch (ExecutionException | CancellationException e) {
+            skipped++;
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            System.err.println("Falha ao gravar checkpoint em " + path + ": " + cause);
+        } finally {
+            pending = null;
+        }
+    }
+
+    long getWritten() { return written; }
+    long getSkipped() { return skipped; }
+}
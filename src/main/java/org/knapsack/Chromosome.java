@@ -1,90 +1,261 @@
 package org.knapsack;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.random.RandomGenerator;
 
 public class Chromosome
 {
-    private final boolean[] genes;
-    private final List<Item> items;
-    private final double capacity;
+    private final Genome genes;
+    private final KnapsackInstance instance;
+    private final double[] wordValues;
+    private final double[] wordWeights;
+    private final long[] wordHashes;
     private double fitness;
+    private double totalValue;
     private double totalWeight;
     private boolean fitnessCalculated;
+    private boolean wordSumsValid;
+    private long hash;
+    private boolean hashValid;
 
-    public Chromosome(List<Item> items, double capacity) {
-        this.items = new ArrayList<>(items);
-        this.capacity = capacity;
-        this.genes = new boolean[items.size()];
+    public Chromosome(KnapsackInstance instance) {
+        this.instance = instance;
+        this.genes = new Genome(instance.size());
+        this.wordValues = new double[genes.wordCount()];
+        this.wordWeights = new double[genes.wordCount()];
+        this.wordHashes = new long[genes.wordCount()];
         this.fitnessCalculated = false;
     }
 
-    public Chromosome(boolean[] genes, List<Item> items, double capacity) {
-        this.genes = genes.clone();
-        this.items = new ArrayList<>(items);
-        this.capacity = capacity;
+    public Chromosome(Genome genes, KnapsackInstance instance) {
+        this.genes = genes.copy();
+        this.instance = instance;
+        this.wordValues = new double[this.genes.wordCount()];
+        this.wordWeights = new double[this.genes.wordCount()];
+        this.wordHashes = new long[this.genes.wordCount()];
         this.fitnessCalculated = false;
     }
 
+    public Chromosome(Chromosome other) {
+        this.genes = other.genes.copy();
+        this.instance = other.instance;
+        this.wordValues = other.wordValues.clone();
+        this.wordWeights = other.wordWeights.clone();
+        this.wordHashes = other.wordHashes.clone();
+        this.hash = other.hash;
+        this.hashValid = other.hashValid;
+        this.fitness = other.fitness;
+        this.totalValue = other.totalValue;
+        this.totalWeight = other.totalWeight;
+        this.fitnessCalculated = other.fitnessCalculated;
+        this.wordSumsValid = other.wordSumsValid;
+    }
+
+    // Cópia do mesmo tipo (subclasses com genes próprios sobrescrevem).
+    public Chromosome copy() {
+        return new Chromosome(this);
+    }
+
     public void initialize(RandomGenerator random) {
-        for (int i = 0; i < genes.length; i++) {
-            genes[i] = random.nextBoolean();
-        }
+        genes.randomize(random);
+        hashValid = false;
         calculateFitness();
     }
 
     public void calculateFitness() {
-        double totalValue = 0;
-        totalWeight = 0;
+        long[] words = genes.words();
+        totalValue = BatchEvaluators.DEFAULT.fill(words, instance.values(), wordValues);
+        totalWeight = BatchEvaluators.DEFAULT.fill(words, instance.weights(), wordWeights);
+        wordSumsValid = true;
+        updateFitness();
+    }
+
+    // Avaliação vinda de fora (ex.: cache). As somas por palavra ficam desatualizadas
+    // e são refeitas só se o cromossomo for usado em um crossover incremental.
+    void setEvaluation(double totalValue, double totalWeight) {
+        this.totalValue = totalValue;
+        this.totalWeight = totalWeight;
+        this.wordSumsValid = false;
+        updateFitness();
+    }
+
+    // Estado da avaliação incremental (totais e somas por palavra), gravado como está para
+    // que um cromossomo lido de um checkpoint continue acumulando exatamente os mesmos
+    // arredondamentos que o original; reavaliar do zero pode diferir no último bit.
+    void writeEvaluation(DataOutput out) throws IOException {
+        out.writeBoolean(fitnessCalculated);
+        if (!fitnessCalculated) return;
+
+        out.writeDouble(totalValue);
+        out.writeDouble(totalWeight);
+        out.writeBoolean(wordSumsValid);
+        if (!wordSumsValid) return;
+
+        for (int w = 0; w < wordValues.length; w++) {
+            out.writeDouble(wordValues[w]);
+            out.writeDouble(wordWeights[w]);
+        }
+    }
+
+    void readEvaluation(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            fitnessCalculated = false;
+            wordSumsValid = false;
+            return;
+        }
 
-        for (int i = 0; i < genes.length; i++) {
-            if (genes[i]) {
-                totalValue += items.get(i).getValue();
-                totalWeight += items.get(i).getWeight();
+        totalValue = in.readDouble();
+        totalWeight = in.readDouble();
+        wordSumsValid = in.readBoolean();
+        if (wordSumsValid) {
+            for (int w = 0; w < wordValues.length; w++) {
+                wordValues[w] = in.readDouble();
+                wordWeights[w] = in.readDouble();
             }
         }
+        updateFitness();
+    }
 
-        if (totalWeight > capacity) {
-            double excess = totalWeight - capacity;
-            double penalty = (excess / capacity) * 5.0;
-            fitness = Math.max(0, totalValue * (1 - penalty));
+    // Recombina os pais neste cromossomo e deriva os totais das somas por palavra
+    // dos pais, sem reavaliar todos os genes.
+    public void crossover(Chromosome head, Chromosome tail, int point) {
+        head.ensureWordSums();
+        tail.ensureWordSums();
+
+        long[] words = genes.words();
+        Genome.crossover(head.genes.words(), tail.genes.words(), point, words);
+        totalValue = WordSums.crossover(head.wordValues, tail.wordValues, point, words,
+                instance.values(), wordValues);
+        totalWeight = WordSums.crossover(head.wordWeights, tail.wordWeights, point, words,
+                instance.weights(), wordWeights);
+        wordSumsValid = true;
+        crossoverHash(head, tail, point);
+        updateFitness();
+    }
+
+    // Só recombina os genes; a avaliação fica para depois (ex.: consulta ao cache).
+    void crossoverGenes(Chromosome head, Chromosome tail, int point) {
+        Genome.crossover(head.genes.words(), tail.genes.words(), point, genes.words());
+        fitnessCalculated = false;
+        wordSumsValid = false;
+        crossoverHash(head, tail, point);
+    }
+
+    // Só mantém o hash se os pais já o tinham; senão fica para a primeira consulta.
+    private void crossoverHash(Chromosome head, Chromosome tail, int point) {
+        hashValid = head.hashValid && tail.hashValid;
+        if (!hashValid) return;
+
+        hash = WordHashes.crossover(head.wordHashes, tail.wordHashes, point, genes.words(),
+                instance.zobristKeys(), wordHashes);
+    }
+
+    public void flip(int index) {
+        genes.flip(index);
+        if (hashValid) {
+            long key = instance.zobristKeys()[index];
+            wordHashes[index >>> 6] ^= key;
+            hash ^= key;
+        }
+        if (!fitnessCalculated) return;
 
-        } else {
-            fitness = totalValue;
+        double sign = genes.get(index) ? 1 : -1;
+        double value = sign * instance.getValue(index);
+        double weight = sign * instance.getWeight(index);
+        if (wordSumsValid) {
+            wordValues[index >>> 6] += value;
+            wordWeights[index >>> 6] += weight;
         }
+        totalValue += value;
+        totalWeight += weight;
+        updateFitness();
+    }
 
+    private void updateFitness() {
+        fitness = penalizedFitness(totalValue, totalWeight, instance.getCapacity());
         fitnessCalculated = true;
     }
 
-    public double getFitness() {
+    private void ensureEvaluated() {
         if (!fitnessCalculated) {
             calculateFitness();
         }
-        return fitness;
     }
 
-    public double getTotalWeight() {
-        if (!fitnessCalculated) {
+    private void ensureWordSums() {
+        if (!wordSumsValid) {
             calculateFitness();
         }
+    }
+
+    private void ensureHash() {
+        if (!hashValid) {
+            hash = WordHashes.fill(genes.words(), instance.zobristKeys(), wordHashes);
+            hashValid = true;
+        }
+    }
+
+    // Para subclasses que reescrevem o genoma diretamente (ex.: decodificadores).
+    void genesChanged() {
+        fitnessCalculated = false;
+        wordSumsValid = false;
+        hashValid = false;
+    }
+
+    boolean isEvaluated() { return fitnessCalculated; }
+
+    // Hash de Zobrist do genoma: XOR das chaves dos itens selecionados. Mantido em O(1)
+    // por gene invertido e por palavra herdada no crossover; calculado por completo só
+    // na primeira consulta. Alterações feitas direto em getGenome() não são vistas.
+    long zobristHash() {
+        ensureHash();
+        return hash;
+    }
+
+    static double penalizedFitness(double totalValue, double totalWeight, double capacity) {
+        if (totalWeight > capacity) {
+            double excess = totalWeight - capacity;
+            double penalty = (excess / capacity) * 5.0;
+            return Math.max(0, totalValue * (1 - penalty));
+        }
+        return totalValue;
+    }
+
+    public double getFitness() {
+        ensureEvaluated();
+        return fitness;
+    }
+
+    public double getTotalWeight() {
+        ensureEvaluated();
         return totalWeight;
     }
 
-    public boolean[] getGenes() { return genes.clone(); }
-    public int getSize() { return genes.length; }
-    public boolean isValid() { return getTotalWeight() <= capacity; }
+    public double getTotalValue() {
+        ensureEvaluated();
+        return totalValue;
+    }
+
+    public Genome getGenes() { return genes.copy(); }
+    public Genome getGenome() { return genes; }
+    public KnapsackInstance getInstance() { return instance; }
+    public int getSize() { return genes.size(); }
+    public boolean isValid() { return getTotalWeight() <= instance.getCapacity(); }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("Fitness: %.2f, Peso: %.2f/%.2f, Itens: ",
-                fitness, totalWeight, capacity));
+                fitness, totalWeight, instance.getCapacity()));
 
         List<String> selectedItems = new ArrayList<>();
-        for (int i = 0; i < genes.length; i++) {
-            if (genes[i]) {
-                selectedItems.add(items.get(i).getName());
+        for (int i = 0; i < genes.size(); i++) {
+            if (genes.get(i)) {
+                selectedItems.add(instance.getName(i));
             }
         }
         sb.append(selectedItems);
@@ -10,8 +10,6 @@ public class Config {
 
     public static final double PESO_MAXIMO = 100;
 
-    public static final double KNOWN_OPTIMAL = 830.0;
-
     public static final int N_CROMOSSOMOS = 150;
     public static final int GERACOES = 100;
     public static final double TAXA_CROSSOVER = 0.85;
@@ -19,4 +17,40 @@ public class Config {
     public static final int ELITISMO = 3;
 
     public static final int NUM_EXECUCOES = 30;
+
+    public static final int INTERVALO_DIVERSIDADE = 1;
+
+    // Entradas do cache de fitness por execução (0 desliga o cache).
+    public static final int TAMANHO_CACHE_FITNESS = 0;
+
+    // Substitui clones na nova geração por variações mutadas.
+    public static final boolean ELIMINAR_DUPLICATAS = false;
+
+    // Encerra a execução quando o melhor fica a essa fração do ótimo (ou do limite linear).
+    public static final double GAP_OTIMALIDADE = 0.0;
+
+    // Reparo guloso dos indivíduos inviáveis e busca local por trocas.
+    public static final boolean REPARO = false;
+    public static final boolean BUSCA_LOCAL = false;
+
+    // Codificação dos indivíduos: bits com penalidade ou chaves aleatórias decodificadas.
+    public static final GA.Encoding CODIFICACAO = GA.Encoding.BINARY;
+
+    // Motor das execuções: o GA padrão ou as populações pré-alocadas no heap (BUFFERED)
+    // ou em memória nativa (OFF_HEAP), que só aceitam as opções básicas acima.
+    public static final GA.Engine MOTOR = GA.Engine.STANDARD;
+
+    // Estudo de capacidades × variantes gravado neste arquivo ao fim dos experimentos
+    // (".csv" gera também "<nome>-historico.csv"; outro nome usa o formato binário).
+    // null desliga.
+    public static final String ARQUIVO_RESULTADOS = null;
+
+    public static final int THREADS_POR_EXECUCAO = 1;
+    public static final int PARALELISMO_EXECUCOES = Runtime.getRuntime().availableProcessors();
+    public static final boolean THREADS_VIRTUAIS = false;
+    public static final long SEMENTE = 2025L;
+
+    public static final int NUM_ILHAS = 4;
+    public static final int INTERVALO_MIGRACAO = 10;
+    public static final int TAMANHO_MIGRACAO = 2;
 }
\ No newline at end of file
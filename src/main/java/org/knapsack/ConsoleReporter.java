@@ -0,0 +1,28 @@
+package org.knapsack;
+
+import java.io.PrintStream;
+
+// Imprime uma linha de progresso a cada 'interval' gerações.
+public class ConsoleReporter implements GenerationListener
+{
+    private final int interval;
+    private final PrintStream out;
+
+    public ConsoleReporter(int interval) {
+        this(interval, System.out);
+    }
+
+    public ConsoleReporter(int interval, PrintStream out) {
+        this.interval = Math.max(1, interval);
+        this.out = out;
+    }
+
+    @Override
+    public void onGeneration(GenerationStats stats) {
+        if (stats.generation % interval != 0) return;
+        out.printf("Geração %d: melhor=%.2f média=%.2f pior=%.2f diversidade=%.1f%% "
+                        + "avaliações=%d (%.2f ms)%n",
+                stats.generation, stats.bestFitness, stats.averageFitness, stats.worstFitness,
+                stats.diversity, stats.totalEvaluations, stats.totalNanos() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,96 @@
+package org.knapsack;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Grava um resultado por linha em 'results' e, se 'histories' não for null, uma linha por
+// geração em outro arquivo, ligadas pela coluna 'sequencia'. Números com ponto decimal,
+// independente da localidade, para leitura direta por pandas/R.
+public class CsvResultSink implements ResultSink
+{
+    private static final String RESULT_HEADER = "sequencia,rotulo,semente,melhor,media,pior,"
+            + "tempo_ms,geracao_convergencia,otimo,acertos_cache,falhas_cache,gap,"
+            + "geracoes_ate_otimo,tempo_ate_otimo_ms,relogio";
+    private static final String HISTORY_HEADER = "sequencia,geracao,melhor,media,pior,diversidade";
+
+    private final BufferedWriter results;
+    private final BufferedWriter histories;
+    private final StringBuilder line = new StringBuilder(256);
+    private long sequence;
+
+    public CsvResultSink(Path results, Path histories) throws IOException {
+        this.results = Files.newBufferedWriter(results, StandardCharsets.UTF_8);
+        this.results.write(RESULT_HEADER);
+        this.results.newLine();
+        if (histories != null) {
+            this.histories = Files.newBufferedWriter(histories, StandardCharsets.UTF_8);
+            this.histories.write(HISTORY_HEADER);
+            this.histories.newLine();
+        } else {
+            this.histories = null;
+        }
+    }
+
+    @Override
+    public boolean includesHistory() {
+        return histories != null;
+    }
+
+    @Override
+    public synchronized void accept(String label, long seed, Experiment.ExperimentResult result,
+                                    double[] best, double[] average, double[] worst,
+                                    double[] diversity) throws IOException {
+        long id = sequence++;
+        line.setLength(0);
+        line.append(id).append(',');
+        appendLabel(label);
+        line.append(',').append(seed)
+                .append(',').append(result.bestFitness)
+                .append(',').append(result.averageFitness)
+                .append(',').append(result.worstFitness)
+                .append(',').append(result.executionTimeMs)
+                .append(',').append(result.convergenceGeneration)
+                .append(',').append(result.foundOptimal)
+                .append(',').append(result.cacheHits)
+                .append(',').append(result.cacheMisses)
+                .append(',').append(result.optimalityGap)
+                .append(',').append(result.generationsToOptimum)
+                .append(',').append(result.timeToOptimumMs)
+                .append(',').append(result.cpuTime ? "cpu" : "parede");
+        results.append(line).append(System.lineSeparator());
+
+        if (histories == null) return;
+        for (int g = 0; g < best.length; g++) {
+            line.setLength(0);
+            line.append(id).append(',').append(g)
+                    .append(',').append(best[g])
+                    .append(',').append(average[g])
+                    .append(',').append(worst[g])
+                    .append(',').append(diversity[g]);
+            histories.append(line).append(System.lineSeparator());
+        }
+    }
+
+    // Aspas só quando o rótulo tem separador, aspas ou quebra de linha.
+    private void appendLabel(String label) {
+        if (label.indexOf(',') < 0 && label.indexOf('"') < 0 && label.indexOf('\n') < 0) {
+            line.append(label);
+            return;
+        }
+        line.append('"').append(label.replace("\"", "\"\"")).append('"');
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            results.close();
+        } finally {
+            if (histories != null) {
+                histories.close();
+            }
+        }
+    }
+}
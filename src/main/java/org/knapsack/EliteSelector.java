@@ -0,0 +1,68 @@
+package org.knapsack;
+
+// Seleciona os k melhores índices de um vetor de fitness com um min-heap limitado a k,
+// em O(P log k) e sem ordenar a população inteira.
+final class EliteSelector
+{
+    private final int[] heap;
+    private int size;
+    private double[] fitness;
+
+    EliteSelector(int capacity) {
+        this.heap = new int[Math.max(0, capacity)];
+    }
+
+    // Preenche 'out' com os índices dos maiores valores em ordem decrescente e
+    // devolve quantos foram escolhidos.
+    int select(double[] fitness, int count, int[] out) {
+        this.fitness = fitness;
+        this.size = 0;
+        int k = Math.min(heap.length, count);
+        if (k == 0) return 0;
+
+        for (int i = 0; i < count; i++) {
+            if (size < k) {
+                heap[size] = i;
+                siftUp(size++);
+            } else if (fitness[i] > fitness[heap[0]]) {
+                heap[0] = i;
+                siftDown(0);
+            }
+        }
+
+        for (int position = k - 1; position >= 0; position--) {
+            out[position] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(0);
+        }
+        this.fitness = null;
+        return k;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (fitness[heap[parent]] <= fitness[node]) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = node;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && fitness[heap[right]] < fitness[heap[child]]) {
+                child = right;
+            }
+            if (fitness[node] <= fitness[heap[child]]) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = node;
+    }
+}
@@ -0,0 +1,240 @@
+package org.knapsack;
+
+import java.util.Arrays;
+
+// Solvers exatos da mochila 0/1, usados como referência para o GA.
+// Com pesos e capacidade inteiros usa programação dinâmica; caso contrário,
+// branch-and-bound com o limite de Dantzig (relaxação fracionária).
+public final class ExactSolver
+{
+    // Acima disso o vetor da programação dinâmica deixa de compensar.
+    private static final long MAX_DP_CAPACITY = 10_000_000L;
+    // Limite de n × (C + 1) para a recorrência (tempo) e para a tabela de escolhas de
+    // dynamicProgramming (n × (C + 1) bits, 32 MB). Acima deles usa o branch-and-bound.
+    private static final long MAX_DP_OPERATIONS = 2_000_000_000L;
+    private static final long MAX_DP_TABLE_BITS = 1L << 28;
+
+    private ExactSolver() {}
+
+    public static Chromosome solve(KnapsackInstance instance) {
+        return canUseDynamicProgramming(instance) && dpCells(instance) <= MAX_DP_TABLE_BITS
+                ? dynamicProgramming(instance)
+                : branchAndBound(instance);
+    }
+
+    static boolean canUseDynamicProgramming(KnapsackInstance instance) {
+        double capacity = instance.getCapacity();
+        if (capacity < 0 || capacity > MAX_DP_CAPACITY || capacity != Math.rint(capacity)) {
+            return false;
+        }
+        for (double weight : instance.weights()) {
+            if (weight != Math.rint(weight)) return false;
+        }
+        return dpCells(instance) <= MAX_DP_OPERATIONS;
+    }
+
+    private static long dpCells(KnapsackInstance instance) {
+        return (long) instance.size() * ((long) instance.getCapacity() + 1);
+    }
+
+    // Só o valor ótimo: um vetor de capacidade+1 posições reutilizado item a item.
+    public static double optimalValue(KnapsackInstance instance) {
+        if (!canUseDynamicProgramming(instance)) {
+            return branchAndBound(instance).getTotalValue();
+        }
+
+        int capacity = (int) instance.getCapacity();
+        double[] best = new double[capacity + 1];
+        for (int i = 0; i < instance.size(); i++) {
+            int weight = checkedWeight(instance, i);
+            double value = instance.getValue(i);
+            if (value <= 0) continue;
+            for (int c = capacity; c >= weight; c--) {
+                best[c] = Math.max(best[c], best[c - weight] + value);
+            }
+        }
+        return best[capacity];
+    }
+
+    // Mesma recorrência, guardando em um bitset por item se ele foi escolhido em cada
+    // capacidade (n × (C+1) bits), o que basta para reconstruir a solução.
+    public static Chromosome dynamicProgramming(KnapsackInstance instance) {
+        if (!canUseDynamicProgramming(instance)) {
+            throw new IllegalArgumentException(
+                    "Programação dinâmica exige pesos e capacidade inteiros e n × C limitado");
+        }
+        if (dpCells(instance) > MAX_DP_TABLE_BITS) {
+            throw new IllegalArgumentException("Tabela da programação dinâmica grande demais: "
+                    + instance.size() + " itens × capacidade " + (long) instance.getCapacity());
+        }
+
+        int n = instance.size();
+        int capacity = (int) instance.getCapacity();
+        double[] best = new double[capacity + 1];
+        long[][] taken = new long[n][];
+
+        for (int i = 0; i < n; i++) {
+            int weight = checkedWeight(instance, i);
+            double value = instance.getValue(i);
+            taken[i] = new long[Genome.wordCount(capacity + 1)];
+            if (value <= 0) continue;
+            for (int c = capacity; c >= weight; c--) {
+                double candidate = best[c - weight] + value;
+                if (candidate > best[c]) {
+                    best[c] = candidate;
+                    taken[i][c >>> 6] |= 1L << c;
+                }
+            }
+        }
+
+        Genome selection = new Genome(n);
+        int c = capacity;
+        for (int i = n - 1; i >= 0; i--) {
+            if ((taken[i][c >>> 6] & (1L << c)) != 0) {
+                selection.set(i, true);
+                c -= (int) instance.getWeight(i);
+            }
+        }
+        return evaluated(selection, instance);
+    }
+
+    // Busca em profundidade sobre os itens ordenados por valor/peso, podando os ramos
+    // cujo limite de Dantzig não supera a melhor solução encontrada. A pilha é explícita
+    // (um nível por item), então o número de itens não esbarra na pilha da thread.
+    public static Chromosome branchAndBound(KnapsackInstance instance) {
+        return new BranchAndBound(instance).solve();
+    }
+
+    private static int checkedWeight(KnapsackInstance instance, int index) {
+        double weight = instance.getWeight(index);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Peso negativo no item " + instance.getName(index));
+        }
+        return (int) weight;
+    }
+
+    private static Chromosome evaluated(Genome selection, KnapsackInstance instance) {
+        Chromosome solution = new Chromosome(selection, instance);
+        solution.calculateFitness();
+        return solution;
+    }
+
+    private static final class BranchAndBound
+    {
+        // Cada nível guarda a folga e o valor ao chegar nele e em que ponto está:
+        // ENTER (ainda não visitado), INCLUDED (o ramo com o item já foi explorado) ou
+        // EXCLUDED (os dois ramos foram explorados).
+        private static final byte ENTER = 0;
+        private static final byte INCLUDED = 1;
+        private static final byte EXCLUDED = 2;
+
+        private final KnapsackInstance instance;
+        private final int[] order;
+        private final double[] weights;
+        private final double[] values;
+        private final boolean[] current;
+        private final boolean[] best;
+        private double bestValue = -1;
+
+        BranchAndBound(KnapsackInstance instance) {
+            this.instance = instance;
+
+            int kept = 0;
+            int[] byRatio = instance.ratioOrder();
+            for (int index : byRatio) {
+                if (instance.getWeight(index) < 0) {
+                    throw new IllegalArgumentException("Peso negativo no item "
+                            + instance.getName(index));
+                }
+                if (instance.getValue(index) > 0) kept++;
+            }
+
+            this.order = new int[kept];
+            this.weights = new double[kept];
+            this.values = new double[kept];
+            for (int k = 0; k < kept; k++) {
+                order[k] = byRatio[k];
+                weights[k] = instance.getWeight(order[k]);
+                values[k] = instance.getValue(order[k]);
+            }
+            this.current = new boolean[kept];
+            this.best = new boolean[kept];
+        }
+
+        Chromosome solve() {
+            search();
+
+            Genome selection = new Genome(instance.size());
+            for (int k = 0; k < order.length; k++) {
+                if (best[k]) selection.set(order[k], true);
+            }
+            return evaluated(selection, instance);
+        }
+
+        private void search() {
+            int n = order.length;
+            double[] remainingAt = new double[n + 1];
+            double[] valueAt = new double[n + 1];
+            byte[] state = new byte[n + 1];
+
+            int depth = 0;
+            remainingAt[0] = instance.getCapacity();
+            state[0] = ENTER;
+
+            while (depth >= 0) {
+                double remaining = remainingAt[depth];
+                double value = valueAt[depth];
+
+                if (state[depth] == ENTER) {
+                    if (value > bestValue) {
+                        bestValue = value;
+                        System.arraycopy(current, 0, best, 0, depth);
+                        Arrays.fill(best, depth, best.length, false);
+                    }
+                    if (depth == n || bound(depth, remaining, value) <= bestValue) {
+                        depth--;
+                        continue;
+                    }
+
+                    state[depth] = INCLUDED;
+                    if (weights[depth] <= remaining) {
+                        current[depth] = true;
+                        depth = enter(depth + 1, remaining - weights[depth],
+                                value + values[depth], remainingAt, valueAt, state);
+                        continue;
+                    }
+                }
+
+                if (state[depth] == INCLUDED) {
+                    state[depth] = EXCLUDED;
+                    current[depth] = false;
+                    depth = enter(depth + 1, remaining, value, remainingAt, valueAt, state);
+                    continue;
+                }
+
+                depth--;
+            }
+        }
+
+        private static int enter(int depth, double remaining, double value,
+                                 double[] remainingAt, double[] valueAt, byte[] state) {
+            remainingAt[depth] = remaining;
+            valueAt[depth] = value;
+            state[depth] = ENTER;
+            return depth;
+        }
+
+        // Limite de Dantzig: completa gulosamente e pega a fração do primeiro item que não cabe.
+        private double bound(int depth, double remaining, double value) {
+            for (int k = depth; k < order.length; k++) {
+                if (weights[k] <= remaining) {
+                    remaining -= weights[k];
+                    value += values[k];
+                } else {
+                    return value + values[k] * remaining / weights[k];
+                }
+            }
+            return value;
+        }
+    }
+}
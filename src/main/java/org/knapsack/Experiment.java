@@ -1,7 +1,8 @@
 package org.knapsack;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class Experiment
 {
@@ -15,19 +16,55 @@ public class Experiment
         public final double executionTimeMs;
         public final int convergenceGeneration;
         public final boolean foundOptimal;
+        public final long cacheHits;
+        public final long cacheMisses;
+        public final double optimalityGap;
+        public final int generationsToOptimum;
+        public final double timeToOptimumMs;
+        // true quando executionTimeMs é tempo de CPU da thread da execução; false quando
+        // é tempo de relógio (GA com várias threads ou tempo de CPU indisponível).
+        public final boolean cpuTime;
 
         public ExperimentResult(double bestFitness, double averageFitness,
                                 double worstFitness, double executionTimeMs,
                                 int convergenceGeneration, boolean foundOptimal) {
+            this(bestFitness, averageFitness, worstFitness, executionTimeMs,
+                    convergenceGeneration, foundOptimal, 0, 0, Double.NaN, -1, Double.NaN);
+        }
+
+        public ExperimentResult(double bestFitness, double averageFitness,
+                                double worstFitness, double executionTimeMs,
+                                int convergenceGeneration, boolean foundOptimal,
+                                long cacheHits, long cacheMisses, double optimalityGap,
+                                int generationsToOptimum, double timeToOptimumMs) {
+            this(bestFitness, averageFitness, worstFitness, executionTimeMs,
+                    convergenceGeneration, foundOptimal, cacheHits, cacheMisses, optimalityGap,
+                    generationsToOptimum, timeToOptimumMs, false);
+        }
+
+        public ExperimentResult(double bestFitness, double averageFitness,
+                                double worstFitness, double executionTimeMs,
+                                int convergenceGeneration, boolean foundOptimal,
+                                long cacheHits, long cacheMisses, double optimalityGap,
+                                int generationsToOptimum, double timeToOptimumMs,
+                                boolean cpuTime) {
             this.bestFitness = bestFitness;
             this.averageFitness = averageFitness;
             this.worstFitness = worstFitness;
             this.executionTimeMs = executionTimeMs;
             this.convergenceGeneration = convergenceGeneration;
             this.foundOptimal = foundOptimal;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+            this.optimalityGap = optimalityGap;
+            this.generationsToOptimum = generationsToOptimum;
+            this.timeToOptimumMs = timeToOptimumMs;
+            this.cpuTime = cpuTime;
         }
     }
 
+    // Resumo de uma métrica. Os valores passam uma vez por um StreamingStatistics, que
+    // também pode ser montado aos poucos (ex.: por um ResultStatistics) e resumido aqui.
     public static class StatisticalSummary
     {
         public final double mean;
@@ -35,46 +72,26 @@ public class Experiment
         public final double min;
         public final double max;
         public final double confidenceInterval95;
+        public final double p50;
+        public final double p95;
+        public final double p99;
 
         public StatisticalSummary(double[] values)
         {
-            this.mean = calculateMean(values);
-            this.standardDeviation = calculateStandardDeviation(values, mean);
-            this.min = calculateMin(values);
-            this.max = calculateMax(values);
-            this.confidenceInterval95 = 1.96 * standardDeviation / Math.sqrt(values.length);
+            this(StreamingStatistics.of(values));
         }
 
-        private double calculateMean(double[] values) {
-            double sum = 0;
-            for (double value : values) {
-                sum += value;
-            }
-            return sum / values.length;
-        }
-
-        private double calculateStandardDeviation(double[] values, double mean) {
-            double sumSquaredDifferences = 0;
-            for (double value : values) {
-                sumSquaredDifferences += Math.pow(value - mean, 2);
-            }
-            return Math.sqrt(sumSquaredDifferences / values.length);
-        }
-
-        private double calculateMin(double[] values) {
-            double min = Double.MAX_VALUE;
-            for (double value : values) {
-                if (value < min) min = value;
-            }
-            return min;
-        }
-
-        private double calculateMax(double[] values) {
-            double max = Double.MIN_VALUE;
-            for (double value : values) {
-                if (value > max) max = value;
-            }
-            return max;
+        public StatisticalSummary(StreamingStatistics statistics)
+        {
+            StreamingStatistics snapshot = statistics.snapshot();
+            this.mean = snapshot.mean();
+            this.standardDeviation = snapshot.standardDeviation();
+            this.min = snapshot.min();
+            this.max = snapshot.max();
+            this.confidenceInterval95 = snapshot.confidenceInterval95();
+            this.p50 = snapshot.p50();
+            this.p95 = snapshot.p95();
+            this.p99 = snapshot.p99();
         }
 
         @Override
@@ -85,54 +102,130 @@ public class Experiment
                     Mínimo: %.2f
                     Máximo: %.2f
                     Intervalo Confiança 95%%: ±%.2f
-                    """, mean, standardDeviation, min, max, confidenceInterval95);
+                    Percentis 50/95/99: %.2f / %.2f / %.2f
+                    """, mean, standardDeviation, min, max, confidenceInterval95, p50, p95, p99);
         }
     }
 
+    // Sem ótimo conhecido, calcula-o com o solver exato antes das execuções.
     public static List<ExperimentResult> executeRuns(List<Item> items, double capacity)
     {
-        return executeRuns(items, capacity, -1);
+        KnapsackInstance instance = KnapsackInstance.of(items, capacity);
+        return executeRuns(instance, ExactSolver.optimalValue(instance));
     }
 
     public static List<ExperimentResult> executeRuns(List<Item> items, double capacity,
                                                      double knownOptimal)
     {
-        List<ExperimentResult> results = new ArrayList<>();
+        return executeRuns(KnapsackInstance.of(items, capacity), knownOptimal);
+    }
 
-        for (int run = 0; run < NUM_RUNS; run++)
-        {
-            GA ga = new GA(
-                    Config.N_CROMOSSOMOS,
-                    Config.TAXA_CROSSOVER,
-                    Config.TAXA_MUTACAO,
-                    Config.ELITISMO,
-                    Config.GERACOES,
-                    0.001
-            );
-
-            long startTime = System.nanoTime();
-            Chromosome best = ga.run(items, capacity);
-            long endTime = System.nanoTime();
-
-            double executionTimeMs = (endTime - startTime) / 1_000_000.0;
-
-            boolean foundOptimal = knownOptimal > 0 &&
-                    (Math.abs(best.getFitness() - knownOptimal) < 0.01);
-
-            int lastGen = ga.getConvergenceGeneration() > 0 ?
-                    ga.getConvergenceGeneration() : ga.getMaxGenerations() - 1;
-            lastGen = Math.min(lastGen, ga.getMaxGenerations() - 1);
-
-            results.add(new ExperimentResult(
-                    best.getFitness(),
-                    ga.getAverageFitnessHistory()[lastGen],
-                    ga.getWorstFitnessHistory()[lastGen],
-                    executionTimeMs,
-                    ga.getConvergenceGeneration(),
-                    foundOptimal
-            ));
-        }
+    // 'configurer' ajusta cada GA depois da configuração padrão (ex.: ligar o reparo),
+    // para comparar variantes sobre as mesmas sementes e o mesmo ótimo.
+    public static List<ExperimentResult> executeRuns(List<Item> items, double capacity,
+                                                     Consumer<GA> configurer)
+    {
+        KnapsackInstance instance = KnapsackInstance.of(items, capacity);
+        return executeRuns(instance, ExactSolver.optimalValue(instance), configurer);
+    }
+
+    // Para instâncias que não vêm de uma lista de Item (ex.: InstanceFile.read).
+    public static List<ExperimentResult> executeRuns(KnapsackInstance instance,
+                                                     double knownOptimal)
+    {
+        return executeRuns(instance, knownOptimal, ga -> {});
+    }
 
-        return results;
+    private static List<ExperimentResult> executeRuns(KnapsackInstance instance,
+                                                      double knownOptimal,
+                                                      Consumer<GA> configurer)
+    {
+        return RunScheduler.fromConfig().runAll(NUM_RUNS,
+                run -> executeRun(instance, knownOptimal, Config.SEMENTE + run, configurer,
+                        null, null));
+    }
+
+    // Executa 'runs' execuções (sementes SEMENTE + 0..runs-1) entregando cada resultado ao
+    // 'sink' assim que termina, sem acumular listas: para estudos com muitas execuções,
+    // analisados depois a partir do arquivo.
+    public static void streamRuns(KnapsackInstance instance, double knownOptimal, int runs,
+                                  String label, Consumer<GA> configurer, ResultSink sink)
+    {
+        RunScheduler.fromConfig().runEach(runs,
+                run -> executeRun(instance, knownOptimal, Config.SEMENTE + run, configurer,
+                        label, sink));
+    }
+
+    private static ExperimentResult executeRun(KnapsackInstance instance, double knownOptimal,
+                                               long seed, Consumer<GA> configurer,
+                                               String label, ResultSink sink)
+    {
+        GA ga = new GA(
+                Config.N_CROMOSSOMOS,
+                Config.TAXA_CROSSOVER,
+                Config.TAXA_MUTACAO,
+                Config.ELITISMO,
+                Config.GERACOES,
+                0.001
+        );
+        ga.setParallelism(Config.THREADS_POR_EXECUCAO);
+        ga.setSeed(seed);
+        ga.setDiversityInterval(Config.INTERVALO_DIVERSIDADE);
+        ga.setFitnessCacheSize(Config.TAMANHO_CACHE_FITNESS);
+        ga.setDuplicateElimination(Config.ELIMINAR_DUPLICATAS);
+        ga.setTargetFitness(knownOptimal);
+        ga.setTargetGap(Config.GAP_OTIMALIDADE);
+        ga.setRepair(Config.REPARO);
+        ga.setLocalSearch(Config.BUSCA_LOCAL);
+        ga.setEncoding(Config.CODIFICACAO);
+        ga.setEngine(Config.MOTOR);
+        ga.setRecordHistory(sink != null && sink.includesHistory());
+        configurer.accept(ga);
+
+        // Tempo de CPU da própria execução, para que a disputa entre execuções
+        // concorrentes não infle o tempo medido. Vale só se o GA, já configurado, roda
+        // em uma thread; com threads internas ou sem tempo de CPU da thread atual (ex.:
+        // execuções em threads virtuais) usa o tempo de relógio. O resultado registra qual.
+        long startCpu = RunScheduler.currentThreadCpuNanos();
+        long startTime = System.nanoTime();
+        Chromosome best = ga.run(instance);
+        long endTime = System.nanoTime();
+        long endCpu = RunScheduler.currentThreadCpuNanos();
+
+        boolean useCpuTime = startCpu >= 0 && endCpu >= 0 && ga.getParallelism() == 1;
+        long elapsed = useCpuTime ? endCpu - startCpu : endTime - startTime;
+        double executionTimeMs = elapsed / 1_000_000.0;
+
+        boolean foundOptimal = knownOptimal > 0 &&
+                (Math.abs(best.getFitness() - knownOptimal) < 0.01);
+
+        GenerationStats last = ga.getLastStats();
+
+        ExperimentResult result = new ExperimentResult(
+                best.getFitness(),
+                last.averageFitness,
+                last.worstFitness,
+                executionTimeMs,
+                ga.getConvergenceGeneration(),
+                foundOptimal,
+                ga.getCacheHits(),
+                ga.getCacheMisses(),
+                ga.getOptimalityGap(),
+                ga.getTargetGeneration(),
+                ga.getTargetNanos() >= 0 ? ga.getTargetNanos() / 1_000_000.0 : Double.NaN,
+                useCpuTime
+        );
+
+        if (sink != null) {
+            try {
+                sink.accept(label, seed, result, ga.getBestFitnessHistory(),
+                        ga.getAverageFitnessHistory(), ga.getWorstFitnessHistory(),
+                        ga.getDiversityHistory());
+            } catch (IOException e) {
+                throw new IllegalStateException(
+                        "Falha ao gravar o resultado da semente " + seed, e);
+            }
+        }
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,21 @@
 package org.knapsack;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ExperimentRunner {
 
+    private static final String[] ROTULOS_VARIANTES =
+            {"Penalidade", "Reparo", "Reparo+Busca", "Chaves"};
+    private static final List<Consumer<GA>> VARIANTES = List.of(
+            ga -> {},
+            ga -> ga.setRepair(true),
+            ga -> { ga.setRepair(true); ga.setLocalSearch(true); },
+            ga -> ga.setEncoding(GA.Encoding.RANDOM_KEY));
+
     public static GA runAllExperiments() {
         System.out.println("\n EXECUTANDO EXPERIMENTOS...");
         System.out.println("━".repeat(50));
@@ -19,9 +30,17 @@ public class ExperimentRunner {
         System.out.println(melhorSolucao);
 
         System.out.println("\n ESTATÍSTICAS (" + Config.NUM_EXECUCOES + " execuções):");
-        List<Experiment.ExperimentResult> resultados = Experiment.executeRuns(items,
-                capacidade, Config.KNOWN_OPTIMAL);
+        MetricsRegistry metricas = new MetricsRegistry();
+        ResultStatistics resultados = runStatistics(items, capacidade,
+                execucao -> execucao.addListener(metricas));
         showStatistics(resultados);
+        showMetrics(metricas);
+
+        System.out.println("\n MODELO DE ILHAS (" + Config.NUM_ILHAS + " ilhas, anel):");
+        testIslands(items, capacidade);
+
+        System.out.println("\n PENALIDADE x REPARO x CHAVES ALEATÓRIAS:");
+        testRepair(items, capacidade * 0.5);
 
         System.out.println("\n COMPORTAMENTO COM DIFERENTES CAPACIDADES:");
         testCapacities(items, capacidade);
@@ -29,6 +48,11 @@ public class ExperimentRunner {
         System.out.println("\n COMPORTAMENTO COM DIFERENTES CONJUNTOS:");
         testItemSets(capacidade);
 
+        if (Config.ARQUIVO_RESULTADOS != null) {
+            System.out.println("\n GRAVANDO ESTUDO EM " + Config.ARQUIVO_RESULTADOS + ":");
+            exportResults(items, capacidade, Path.of(Config.ARQUIVO_RESULTADOS));
+        }
+
         return ga;
     }
     public static List<Item> createItemsFromConfig() {
@@ -41,26 +65,129 @@ public class ExperimentRunner {
         return items;
     }
 
-    private static void showStatistics(List<Experiment.ExperimentResult> resultados)
-    {
-        double[] fitnessValues = new double[resultados.size()];
-        for (int i = 0; i < resultados.size(); i++) {
-            fitnessValues[i] = resultados.get(i).bestFitness;
-        }
-        Experiment.StatisticalSummary stats = new Experiment.StatisticalSummary
-                (fitnessValues);
+    // Execuções das Config.NUM_EXECUCOES sementes, resumidas à medida que terminam.
+    private static ResultStatistics runStatistics(List<Item> items, double capacidade,
+                                                  Consumer<GA> configurer) {
+        KnapsackInstance instance = KnapsackInstance.of(items, capacidade);
+        ResultStatistics estatisticas = new ResultStatistics();
+        Experiment.streamRuns(instance, ExactSolver.optimalValue(instance),
+                Config.NUM_EXECUCOES, "", configurer, estatisticas);
+        return estatisticas;
+    }
+
+    private static ResultStatistics runStatistics(List<Item> items, double capacidade) {
+        return runStatistics(items, capacidade, ga -> {});
+    }
+
+    private static String relogio(ResultStatistics resultados) {
+        long cpu = resultados.cpuTimedRuns();
+        if (cpu == resultados.runs()) return "CPU";
+        return cpu == 0 ? "relógio" : cpu + " de " + resultados.runs() + " em CPU";
+    }
 
-        double tempoMedio = resultados.stream()
-                .mapToDouble(r -> r.executionTimeMs)
-                .average().orElse(0);
+    private static void showStatistics(ResultStatistics resultados)
+    {
+        Experiment.StatisticalSummary stats =
+                new Experiment.StatisticalSummary(resultados.bestFitness());
+        Experiment.StatisticalSummary tempo =
+                new Experiment.StatisticalSummary(resultados.executionTimeMs());
 
         System.out.printf("""
             • Média: %.2f
             • Desvio Padrão: %.2f
             • Mínimo: %.2f
             • Máximo: %.2f
-            • Tempo médio: %.2f ms
-            """, stats.mean, stats.standardDeviation, stats.min, stats.max, tempoMedio);
+            • Fitness p50/p95/p99: %.2f / %.2f / %.2f
+            • Tempo médio (%s): %.2f ms (p50 %.2f, p95 %.2f, p99 %.2f ms)
+            """, stats.mean, stats.standardDeviation, stats.min, stats.max,
+                stats.p50, stats.p95, stats.p99, relogio(resultados), tempo.mean, tempo.p50,
+                tempo.p95, tempo.p99);
+
+        double gapMedio = resultados.optimalityGap().mean();
+        System.out.printf("• Gap médio até o ótimo: %.2f%%%n",
+                Double.isNaN(gapMedio) ? 0 : gapMedio * 100);
+
+        long acertos = resultados.cacheHits();
+        long consultas = acertos + resultados.cacheMisses();
+        if (consultas > 0) {
+            System.out.printf("• Acertos no cache: %.1f%% de %d consultas%n",
+                    acertos * 100.0 / consultas, consultas);
+        }
+    }
+
+    private static void showMetrics(MetricsRegistry metricas) {
+        System.out.printf("""
+            • Gerações: %d  Avaliações: %d
+            • Tempo médio por geração: estatísticas %.1f µs, diversidade %.1f µs, reprodução e avaliação dos filhos %.1f µs
+            """, metricas.counter("geracoes").sum(), metricas.counter("avaliacoes").sum(),
+                metricas.histogram("nanos.estatisticas").mean() / 1000,
+                metricas.histogram("nanos.diversidade").mean() / 1000,
+                metricas.histogram("nanos.reproducao").mean() / 1000);
+    }
+
+    private static void testIslands(List<Item> items, double capacidade) {
+        IslandModel ilhas = new IslandModel(Config.NUM_ILHAS, IslandModel.Topology.RING,
+                Config.INTERVALO_MIGRACAO, Config.TAMANHO_MIGRACAO);
+        int populacaoPorIlha = Math.max(2, Config.N_CROMOSSOMOS / Config.NUM_ILHAS);
+
+        Chromosome melhor = ilhas.run(KnapsackInstance.of(items, capacidade), ilha -> {
+            GA ga = new GA(populacaoPorIlha, Config.TAXA_CROSSOVER, Config.TAXA_MUTACAO,
+                    Config.ELITISMO, Config.GERACOES, 0.001);
+            ga.setSeed(Config.SEMENTE + ilha);
+            return ga;
+        });
+        System.out.println(melhor);
+    }
+
+    // Tempo e gerações até o ótimo de cada variante, na capacidade mais apertada.
+    private static void testRepair(List<Item> items, double capacidade) {
+        System.out.println("━".repeat(40));
+
+        for (int i = 0; i < ROTULOS_VARIANTES.length; i++) {
+            ResultStatistics runs = runStatistics(items, capacidade, VARIANTES.get(i));
+
+            System.out.printf(
+                    "• %-13s: Ótimo em %d/%d  Gerações=%-5.1f Tempo=%.2fms (p95 %.2fms)%n",
+                    ROTULOS_VARIANTES[i], runs.optimalRuns(), runs.runs(),
+                    runs.generationsToOptimum().mean(), runs.timeToOptimumMs().mean(),
+                    runs.timeToOptimumMs().p95());
+        }
+    }
+
+    // Todas as variantes em cada capacidade, com históricos, direto para o arquivo:
+    // nada fica em memória além das execuções em andamento.
+    private static void exportResults(List<Item> items, double capacidadeOriginal, Path arquivo) {
+        System.out.println("━".repeat(40));
+
+        double[] fatores = {0.5, 0.75, 1.0, 1.5, 2.0};
+        long inicio = System.nanoTime();
+        try (ResultSink sink = openSink(arquivo)) {
+            for (double fator : fatores) {
+                KnapsackInstance instance = KnapsackInstance.of(items, capacidadeOriginal * fator);
+                double otimo = ExactSolver.optimalValue(instance);
+                for (int i = 0; i < ROTULOS_VARIANTES.length; i++) {
+                    Experiment.streamRuns(instance, otimo, Config.NUM_EXECUCOES,
+                            ROTULOS_VARIANTES[i] + " cap=" + instance.getCapacity(),
+                            VARIANTES.get(i), sink);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("• Falha ao gravar " + arquivo + ": " + e.getMessage());
+            return;
+        }
+        System.out.printf("• %d execuções gravadas em %.1fs%n",
+                fatores.length * ROTULOS_VARIANTES.length * Config.NUM_EXECUCOES,
+                (System.nanoTime() - inicio) / 1e9);
+    }
+
+    private static ResultSink openSink(Path arquivo) throws IOException {
+        String nome = arquivo.getFileName().toString();
+        if (nome.endsWith(".csv")) {
+            Path historico = arquivo.resolveSibling(
+                    nome.substring(0, nome.length() - 4) + "-historico.csv");
+            return new CsvResultSink(arquivo, historico);
+        }
+        return new BinaryResultSink(arquivo, true);
     }
 
     private static void testCapacities(List<Item> items, double capacidadeOriginal)
@@ -79,15 +206,13 @@ public class ExperimentRunner {
                 "100% Maior"};
 
         for (int i = 0; i < capacidades.length; i++) {
-            List<Experiment.ExperimentResult> runs = Experiment.executeRuns(items,
-                    capacidades[i], Config.KNOWN_OPTIMAL);
-            double fitnessMedio = runs.stream().mapToDouble(r ->
-                    r.bestFitness).average().orElse(0);
-            double tempoMedio = runs.stream().mapToDouble(r ->
-                    r.executionTimeMs).average().orElse(0);
-
-            System.out.printf("• %-12s: Fitness=%-6.1f Tempo=%-5.1fms%n",
-                    rotulos[i], fitnessMedio, tempoMedio);
+            ResultStatistics runs = runStatistics(items, capacidades[i]);
+            double fitnessMedio = runs.bestFitness().mean();
+            double tempoMedio = runs.executionTimeMs().mean();
+            Referencia exato = solveExactly(items, capacidades[i]);
+
+            System.out.printf("• %-12s: Fitness=%-6.1f Tempo=%-5.1fms Ótimo=%-6.1f (%.2fms)%n",
+                    rotulos[i], fitnessMedio, tempoMedio, exato.valor, exato.tempoMs);
         }
     }
 
@@ -100,18 +225,26 @@ public class ExperimentRunner {
 
         for (int i = 0; i < conjuntos.size(); i++)
         {
-            List<Experiment.ExperimentResult> runs = Experiment.executeRuns
-                    (conjuntos.get(i), capacidade, Config.KNOWN_OPTIMAL);
-            double fitnessMedio = runs.stream().mapToDouble(r ->
-                    r.bestFitness).average().orElse(0);
-            double tempoMedio = runs.stream().mapToDouble(r ->
-                    r.executionTimeMs).average().orElse(0);
-
-            System.out.printf("• %-15s: Fitness=%-6.1f Tempo=%-5.1fms%n",
-                    nomesConjuntos[i], fitnessMedio, tempoMedio);
+            ResultStatistics runs = runStatistics(conjuntos.get(i), capacidade);
+            double fitnessMedio = runs.bestFitness().mean();
+            double tempoMedio = runs.executionTimeMs().mean();
+            Referencia exato = solveExactly(conjuntos.get(i), capacidade);
+
+            System.out.printf("• %-15s: Fitness=%-6.1f Tempo=%-5.1fms Ótimo=%-6.1f (%.2fms)%n",
+                    nomesConjuntos[i], fitnessMedio, tempoMedio, exato.valor, exato.tempoMs);
         }
     }
 
+    private record Referencia(double valor, double tempoMs) {}
+
+    // Ótimo do solver exato e o tempo gasto, como linha de base para o GA.
+    private static Referencia solveExactly(List<Item> items, double capacidade) {
+        KnapsackInstance instance = KnapsackInstance.of(items, capacidade);
+        long inicio = System.nanoTime();
+        Chromosome otimo = ExactSolver.solve(instance);
+        return new Referencia(otimo.getTotalValue(), (System.nanoTime() - inicio) / 1_000_000.0);
+    }
+
     public static List<List<Item>> createItemSets() {
         List<Item> itensOriginais = createItemsFromConfig();
         List<List<Item>> conjuntos = new ArrayList<>();
@@ -157,10 +290,9 @@ public class ExperimentRunner {
         };
 
         for (double cap : capacidades) {
-            List<Experiment.ExperimentResult> runs = Experiment.executeRuns
-                    (items, cap, Config.KNOWN_OPTIMAL);
-            if (!runs.isEmpty()) {
-                dadosResumidos.add(createSummaryResult(runs));
+            ResultStatistics runs = runStatistics(items, cap);
+            if (runs.runs() > 0) {
+                dadosResumidos.add(runs.toSummaryResult());
             }
         }
         return dadosResumidos;
@@ -171,42 +303,11 @@ public class ExperimentRunner {
         List<List<Item>> conjuntos = createItemSets();
 
         for (List<Item> conjunto : conjuntos) {
-            List<Experiment.ExperimentResult> runs = Experiment.executeRuns(conjunto,
-                    Config.PESO_MAXIMO, Config.KNOWN_OPTIMAL);
-            if (!runs.isEmpty()) {
-                dadosResumidos.add(createSummaryResult(runs));
+            ResultStatistics runs = runStatistics(conjunto, Config.PESO_MAXIMO);
+            if (runs.runs() > 0) {
+                dadosResumidos.add(runs.toSummaryResult());
             }
         }
         return dadosResumidos;
     }
-
-    private static Experiment.ExperimentResult createSummaryResult(List<Experiment.
-            ExperimentResult> runs)
-
-    {
-        double avgBestFitness = runs.stream()
-                .mapToDouble(r -> r.bestFitness)
-                .average().orElse(0);
-        double avgWorstFitness = runs.stream()
-                .mapToDouble(r -> r.worstFitness)
-                .average().orElse(0);
-        double avgTime = runs.stream()
-                .mapToDouble(r -> r.executionTimeMs)
-                .average().orElse(0);
-        int avgConvGen = (int) runs.stream()
-                .mapToInt(r -> r.convergenceGeneration)
-                .average().orElse(0);
-
-        long successCount = runs.stream().filter(r -> r.foundOptimal).count();
-        double successRate = (double) successCount * 100.0 / runs.size();
-
-        return new Experiment.ExperimentResult(
-                avgBestFitness,
-                successRate,
-                avgWorstFitness,
-                avgTime,
-                avgConvGen,
-                successCount > (runs.size() / 2)
-        );
-    }
 }
@@ -0,0 +1,197 @@
+package org.knapsack;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Cache limitado de avaliações indexado pelo hash de 64 bits do genoma. As entradas ficam
+// em vetores primitivos; um índice de endereçamento aberto (sondagem linear, remoção por
+// deslocamento) localiza a entrada e o algoritmo CLOCK escolhe quem sai quando está cheio.
+final class FitnessCache
+{
+    private final long[] keys;
+    private final double[] values;
+    private final double[] weights;
+    private final boolean[] referenced;
+    private final int[] table;
+    private final int tableMask;
+
+    private int size;
+    private int hand;
+    private long hits;
+    private long misses;
+
+    FitnessCache(int capacity) {
+        int entries = Math.max(1, capacity);
+        this.keys = new long[entries];
+        this.values = new double[entries];
+        this.weights = new double[entries];
+        this.referenced = new boolean[entries];
+
+        int tableSize = Integer.highestOneBit(entries) << 2;
+        this.table = new int[tableSize];
+        this.tableMask = tableSize - 1;
+    }
+
+    private FitnessCache(FitnessCache other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.weights = other.weights.clone();
+        this.referenced = other.referenced.clone();
+        this.table = other.table.clone();
+        this.tableMask = other.tableMask;
+        this.size = other.size;
+        this.hand = other.hand;
+        this.hits = other.hits;
+        this.misses = other.misses;
+    }
+
+    // Cópia independente, para gravar em outra thread enquanto o GA segue usando o cache.
+    synchronized FitnessCache copy() {
+        return new FitnessCache(this);
+    }
+
+    // Em caso de acerto, copia a avaliação guardada para 'target'.
+    synchronized boolean get(long key, Chromosome target) {
+        int slot = find(key);
+        if (slot < 0) {
+            misses++;
+            return false;
+        }
+
+        int entry = table[slot] - 1;
+        referenced[entry] = true;
+        hits++;
+        target.setEvaluation(values[entry], weights[entry]);
+        return true;
+    }
+
+    // Consulta de quem já tem a avaliação (ex.: uma cópia avaliada incrementalmente): conta
+    // acerto ou falha como get() e, na falha, guarda a avaliação recebida.
+    synchronized boolean record(long key, double value, double weight) {
+        int slot = find(key);
+        if (slot >= 0) {
+            referenced[table[slot] - 1] = true;
+            hits++;
+            return true;
+        }
+        misses++;
+        put(key, value, weight);
+        return false;
+    }
+
+    synchronized void put(long key, double value, double weight) {
+        if (find(key) >= 0) return;
+
+        int entry = size < keys.length ? size++ : evict();
+        keys[entry] = key;
+        values[entry] = value;
+        weights[entry] = weight;
+        referenced[entry] = false;
+
+        int slot = home(key);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & tableMask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    // Grava as entradas na ordem do vetor, com o ponteiro do CLOCK e os contadores. O índice
+    // não é gravado: read() o reconstrói, e quem está no cache (não a posição no índice)
+    // é o que decide acertos e remoções, então o cache lido se comporta como o original.
+    synchronized void write(DataOutput out) throws IOException {
+        out.writeInt(keys.length);
+        out.writeInt(size);
+        out.writeInt(hand);
+        out.writeLong(hits);
+        out.writeLong(misses);
+        for (int entry = 0; entry < size; entry++) {
+            out.writeLong(keys[entry]);
+            out.writeDouble(values[entry]);
+            out.writeDouble(weights[entry]);
+            out.writeBoolean(referenced[entry]);
+        }
+    }
+
+    // A capacidade gravada precisa ser 'capacity' (a do GA que vai usar o cache) e o número
+    // de entradas caber em 'maxEntries' (ex.: pelo tamanho do arquivo), para que um arquivo
+    // corrompido não reserve vetores enormes.
+    static FitnessCache read(DataInput in, int capacity, long maxEntries) throws IOException {
+        int stored = in.readInt();
+        if (stored != Math.max(1, capacity)) {
+            throw new IOException("Cache de avaliações de " + stored + " entradas; esperado "
+                    + capacity);
+        }
+        int size = in.readInt();
+        int hand = in.readInt();
+        if (size < 0 || size > capacity || size > maxEntries || hand < 0 || hand >= capacity) {
+            throw new IOException("Cache de avaliações inválido: " + size + " entradas, ponteiro "
+                    + hand);
+        }
+
+        FitnessCache cache = new FitnessCache(capacity);
+        cache.hits = in.readLong();
+        cache.misses = in.readLong();
+        for (int entry = 0; entry < size; entry++) {
+            long key = in.readLong();
+            if (cache.find(key) >= 0) {
+                throw new IOException("Cache de avaliações com chave repetida: " + key);
+            }
+            cache.keys[entry] = key;
+            cache.values[entry] = in.readDouble();
+            cache.weights[entry] = in.readDouble();
+            cache.referenced[entry] = in.readBoolean();
+            int slot = cache.home(key);
+            while (cache.table[slot] != 0) {
+                slot = (slot + 1) & cache.tableMask;
+            }
+            cache.table[slot] = entry + 1;
+            cache.size = entry + 1;
+        }
+        cache.hand = hand;
+        return cache;
+    }
+
+    synchronized long getHits() { return hits; }
+    synchronized long getMisses() { return misses; }
+
+    private int evict() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % keys.length;
+        }
+        int victim = hand;
+        hand = (hand + 1) % keys.length;
+        removeSlot(find(keys[victim]));
+        return victim;
+    }
+
+    private int find(long key) {
+        int slot = home(key);
+        while (table[slot] != 0) {
+            if (keys[table[slot] - 1] == key) return slot;
+            slot = (slot + 1) & tableMask;
+        }
+        return -1;
+    }
+
+    // Remoção sem lápides: puxa para o buraco as entradas seguintes cuja posição de
+    // origem não fica entre o buraco e a posição atual.
+    private void removeSlot(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & tableMask;
+        while (table[next] != 0) {
+            int home = home(keys[table[next] - 1]);
+            if (((next - home) & tableMask) >= ((next - hole) & tableMask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+            next = (next + 1) & tableMask;
+        }
+        table[hole] = 0;
+    }
+
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & tableMask;
+    }
+}
@@ -1,12 +1,35 @@
 package org.knapsack;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
 
 public class GA
 {
+    // BINARY: genes são bits e indivíduos inviáveis são penalizados.
+    // RANDOM_KEY: genes são prioridades decodificadas sempre em soluções viáveis.
+    public enum Encoding { BINARY, RANDOM_KEY }
+
+    // Motor que executa run(): STANDARD é este GA; BUFFERED (BufferedGA) e OFF_HEAP
+    // (OffHeapGA) trocam duas populações pré-alocadas, no heap ou em memória nativa,
+    // e só aceitam o GA básico (codificação binária, uma thread, sem cache, duplicatas,
+    // reparo nem checkpoints).
+    public enum Engine { STANDARD, BUFFERED, OFF_HEAP }
+
+    static final RandomGeneratorFactory<SplittableGenerator> RANDOM_FACTORY =
+            RandomGeneratorFactory.of("L64X128MixRandom");
+    private static final int MAX_DUPLICATE_RETRIES = 8;
+    private static final int CONVERGENCE_WINDOW = 10;
+
     private int populationSize;
     private double crossoverRate;
     private double mutationRate;
@@ -15,15 +38,51 @@ public class GA
     private double convergenceThreshold;
 
     private List<Chromosome> population;
-    private List<Item> items;
-    private double capacity;
-    private RandomGenerator random;
-
-    private double[] bestFitnessHistory;
-    private double[] averageFitnessHistory;
-    private double[] worstFitnessHistory;
-    private double[] diversityHistory; 
+    private double[] fitnessValues;
+    private int bestIndex;
+    private boolean populationScanned;
+    private EliteSelector eliteSelector;
+    private int[] eliteIndices;
+    private KnapsackInstance instance;
+    private SplittableGenerator random;
+    private MutationSampler mutationSampler;
+    private int parallelism = 1;
+    private int fitnessCacheSize;
+    private FitnessCache fitnessCache;
+    private boolean eliminateDuplicates;
+    private LongHashSet seenGenomes;
+    private long duplicatesReplaced;
+    private double targetGap;
+    private double targetFitness = Double.POSITIVE_INFINITY;
+    private double upperBound;
+    private Encoding encoding = Encoding.BINARY;
+    private Engine engine = Engine.STANDARD;
+    private boolean repair;
+    private boolean localSearch;
+    private long startNanos;
+    private int targetGeneration;
+    private long targetNanos;
+    private ForkJoinPool pool;
+    private long seed;
+    private boolean seeded;
+    private Path checkpointPath;
+    private int checkpointInterval;
+    private int reseedInterval;
+    private CheckpointWriter checkpointWriter;
+
+    private boolean recordHistory = true;
+    private HistoryRecorder history;
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private GenerationStats lastStats;
+    private double[] recentBest;
+    private double averageFitness;
+    private double worstFitness;
+    private double lastDiversity;
+    private long evaluations;
+    private long generationEvaluations;
     private int convergenceGeneration;
+    private int diversityInterval = 1;
+    private LocusCounter locusCounter;
 
     public GA(int populationSize, double crossoverRate, double mutationRate,
               int elitismCount, int maxGenerations, double convergenceThreshold) {
@@ -33,189 +92,721 @@ public class GA
         this.elitismCount = elitismCount;
         this.maxGenerations = maxGenerations;
         this.convergenceThreshold = convergenceThreshold;
-        this.random = RandomGenerator.getDefault();
+        this.random = RANDOM_FACTORY.create();
+        this.mutationSampler = new MutationSampler(mutationRate);
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.seeded = true;
+        this.random = RANDOM_FACTORY.create(seed);
+    }
+
+    // Com mais de uma thread, a produção dos filhos de cada geração é dividida entre
+    // os núcleos; cada parte usa um fluxo próprio obtido com split() do gerador
+    // principal, então o resultado é reprodutível para a mesma semente e paralelismo.
+    public void setParallelism(int threads) {
+        this.parallelism = Math.max(1, threads);
+    }
+
+    // Calcula a diversidade só a cada 'generations' gerações; nas demais repete o último valor.
+    public void setDiversityInterval(int generations) {
+        this.diversityInterval = Math.max(1, generations);
+    }
+
+    // Com tamanho > 0, os filhos de crossover deixam de ser avaliados incrementalmente e
+    // passam por um cache de avaliações (chave: hash do genoma) antes da avaliação
+    // completa; as cópias mutadas também são consultadas e alimentam o cache. Compensa
+    // com genomas curtos ou populações convergidas, em que os filhos se repetem; com
+    // genomas longos quase todo filho é inédito e o cache só adiciona custo.
+    public void setFitnessCacheSize(int entries) {
+        this.fitnessCacheSize = Math.max(0, entries);
+    }
+
+    // Impede clones na nova geração: cada filho repetido tem genes invertidos ao acaso
+    // até ficar único (ou até esgotar as tentativas).
+    public void setDuplicateElimination(boolean enabled) {
+        this.eliminateDuplicates = enabled;
+    }
+
+    // A execução termina assim que o melhor indivíduo fica a no máximo 'gap' (fração)
+    // do limite superior: o limite da relaxação linear da instância ou, se informado
+    // e menor, o valor alvo (ex.: o ótimo calculado pelo ExactSolver).
+    public void setTargetGap(double gap) {
+        this.targetGap = Math.max(0, gap);
+    }
+
+    public void setTargetFitness(double fitness) {
+        this.targetFitness = fitness > 0 ? fitness : Double.POSITIVE_INFINITY;
+    }
+
+    // Guarda o histórico completo das gerações (usado pelos gráficos). Sem ele, o
+    // acompanhamento fica só com os listeners e getLastStats().
+    public void setRecordHistory(boolean enabled) {
+        this.recordHistory = enabled;
+    }
+
+    public void addListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void setEncoding(Encoding encoding) {
+        this.encoding = encoding;
     }
 
-    public Chromosome run(List<Item> items, double capacity)
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    // Reparo guloso de cada indivíduo gerado (fica sempre viável) e, opcionalmente,
+    // busca local por trocas depois do reparo. Só valem para a codificação binária;
+    // o decodificador de chaves aleatórias já produz soluções viáveis e completas.
+    public void setRepair(boolean enabled) {
+        this.repair = enabled;
+    }
+
+    public void setLocalSearch(boolean enabled) {
+        this.localSearch = enabled;
+    }
+
+    // Grava o estado da execução em 'path' a cada 'everyGenerations' gerações, em segundo
+    // plano (ver CheckpointWriter). Nessas gerações o gerador é recriado a partir de
+    // (semente, geração), então uma execução retomada com resume() segue exatamente o
+    // mesmo caminho da original. Por isso ligar os checkpoints muda a trajetória: com a
+    // mesma semente, uma execução sem checkpoints (ou com outro intervalo) dá outro
+    // resultado. Falhas de gravação só são registradas e contadas como descartadas.
+    public void setCheckpoint(Path path, int everyGenerations) {
+        this.checkpointPath = path;
+        this.checkpointInterval = Math.max(1, everyGenerations);
+    }
+
+    public Chromosome run(List<Item> items, double capacity) {
+        return run(KnapsackInstance.of(items, capacity));
+    }
+
+    public Chromosome run(KnapsackInstance instance)
     {
-        this.items = new ArrayList<>(items);
-        this.capacity = capacity;
-        this.bestFitnessHistory = new double[maxGenerations];
-        this.averageFitnessHistory = new double[maxGenerations];
-        this.worstFitnessHistory = new double[maxGenerations];
-        this.diversityHistory = new double[maxGenerations];
-        this.convergenceGeneration = -1;
+        if (engine != Engine.STANDARD) {
+            return runEngine(instance);
+        }
+
+        prepare(instance);
+        try {
+            for (int generation = 0; generation < maxGenerations; generation++) {
+                if (!step(generation)) break;
+            }
+        } finally {
+            finish();
+        }
+
+        return getBestChromosome();
+    }
+
+    // Executa com o BufferedGA ou o OffHeapGA e traz o resultado para este GA, de modo que
+    // históricos, listeners, getLastStats, getOptimalityGap, o valor alvo e a parada pelo
+    // limite superior (setTargetFitness/setTargetGap) funcionem como em uma execução normal.
+    // O histórico fica só neste GA; o motor não guarda o seu. A população final fica reduzida ao melhor indivíduo.
+    private Chromosome runEngine(KnapsackInstance instance) {
+        if (encoding != Encoding.BINARY || parallelism > 1 || fitnessCacheSize > 0
+                || eliminateDuplicates || repair || localSearch || checkpointPath != null) {
+            throw new IllegalStateException("O motor " + engine + " só executa o GA básico: "
+                    + "binário, uma thread, sem cache, duplicatas, reparo ou checkpoints");
+        }
+        if (!seeded) {
+            seed = random.nextLong();
+            seeded = true;
+        }
+        reset(instance);
+        evaluations = 0;
+
+        GenerationListener collector = stats -> {
+            if (targetGeneration < 0 && stats.bestFitness >= targetFitness - 1e-9) {
+                targetGeneration = stats.generation;
+                targetNanos = System.nanoTime() - startNanos;
+            }
+            evaluations = stats.totalEvaluations;
+            lastStats = stats;
+            if (history != null) {
+                history.onGeneration(stats);
+            }
+            for (GenerationListener listener : listeners) {
+                listener.onGeneration(stats);
+            }
+        };
+
+        Chromosome best;
+        if (engine == Engine.BUFFERED) {
+            BufferedGA buffered = new BufferedGA(populationSize, crossoverRate, mutationRate,
+                    elitismCount, maxGenerations, convergenceThreshold);
+            buffered.setSeed(seed);
+            buffered.setDiversityInterval(diversityInterval);
+            buffered.setTargetFitness(targetFitness);
+            buffered.setTargetGap(targetGap);
+            buffered.setRecordHistory(false);
+            buffered.addListener(collector);
+            best = buffered.run(instance);
+            convergenceGeneration = buffered.getConvergenceGeneration();
+        } else {
+            OffHeapGA offHeap = new OffHeapGA(populationSize, crossoverRate, mutationRate,
+                    elitismCount, maxGenerations, convergenceThreshold);
+            offHeap.setSeed(seed);
+            offHeap.setDiversityInterval(diversityInterval);
+            offHeap.setTargetFitness(targetFitness);
+            offHeap.setTargetGap(targetGap);
+            offHeap.addListener(collector);
+            best = offHeap.run(instance);
+            convergenceGeneration = offHeap.getConvergenceGeneration();
+        }
+
+        population = new ArrayList<>(List.of(best));
+        Arrays.fill(fitnessValues, Double.NEGATIVE_INFINITY);
+        fitnessValues[0] = best.getFitness();
+        bestIndex = 0;
+        populationScanned = true;
+        return best;
+    }
+
+    // Continua uma execução a partir de um checkpoint gravado com setCheckpoint. O GA
+    // deve ter os mesmos parâmetros da execução original e 'instance' ser a mesma.
+    public Chromosome resume(Path checkpoint, KnapsackInstance instance) throws IOException
+    {
+        int first = restore(Checkpoint.read(checkpoint, instance, fitnessCacheSize), instance);
+        try {
+            for (int generation = first; generation < maxGenerations; generation++) {
+                if (!step(generation)) break;
+            }
+        } finally {
+            finish();
+        }
+
+        return getBestChromosome();
+    }
+
+    // Prepara a população inicial. Este método, step/finish e os operadores com
+    // visibilidade de pacote também são usados pelo modelo de ilhas e pelos
+    // benchmarks JMH (src/jmh/java).
+    void prepare(KnapsackInstance instance) {
+        reset(instance);
+        if (checkpointPath != null && !seeded) {
+            seed = random.nextLong();
+            seeded = true;
+        }
+        reseedInterval = checkpointInterval;
 
         initializePopulation();
+        scanFitness();
+        startWorkers();
+    }
 
-    
-        for (int generation = 0; generation < maxGenerations; generation++) {
-            evaluatePopulation(generation);
+    private int restore(Checkpoint checkpoint, KnapsackInstance instance) {
+        if (checkpoint.population.length != populationSize) {
+            throw new IllegalArgumentException("Checkpoint com " + checkpoint.population.length
+                    + " indivíduos para um GA de " + populationSize);
+        }
+        reset(instance);
+        this.fitnessCache = checkpoint.cache;
+        this.encoding = checkpoint.encoding;
+        this.seed = checkpoint.seed;
+        this.seeded = true;
+        this.reseedInterval = checkpointPath != null ? checkpointInterval : checkpoint.interval;
+        this.random = RANDOM_FACTORY.create(generationSeed(checkpoint.generation));
+        this.startNanos = System.nanoTime() - checkpoint.elapsedNanos;
+        this.targetGeneration = checkpoint.targetGeneration;
+        this.targetNanos = checkpoint.targetNanos;
+        this.evaluations = checkpoint.evaluations;
+        this.generationEvaluations = checkpoint.generationEvaluations;
+        this.duplicatesReplaced = checkpoint.duplicatesReplaced;
+        this.lastDiversity = checkpoint.lastDiversity;
+        System.arraycopy(checkpoint.recentBest, 0, recentBest, 0,
+                Math.min(recentBest.length, checkpoint.recentBest.length));
+
+        if (history != null) {
+            double[][] past = checkpoint.history;
+            for (int g = 0; g < past[0].length; g++) {
+                history.onGeneration(new GenerationStats(g, past[0][g], past[1][g], past[2][g],
+                        past[3][g], 0, 0, 0, 0, 0));
+            }
+        }
+
+        population = new ArrayList<>(Arrays.asList(checkpoint.population));
+        scanFitness();
+        startWorkers();
+        return checkpoint.generation;
+    }
+
+    private void reset(KnapsackInstance instance) {
+        this.startNanos = System.nanoTime();
+        this.targetGeneration = -1;
+        this.targetNanos = -1;
+        this.instance = instance;
+        this.history = recordHistory ? new HistoryRecorder() : null;
+        this.lastStats = null;
+        this.recentBest = new double[CONVERGENCE_WINDOW + 1];
+        this.evaluations = populationSize;
+        this.generationEvaluations = populationSize;
+        this.convergenceGeneration = -1;
+        this.locusCounter = new LocusCounter(instance.size());
+        this.fitnessValues = new double[populationSize];
+        this.eliteSelector = new EliteSelector(elitismCount);
+        this.eliteIndices = new int[Math.max(0, elitismCount)];
+        this.fitnessCache = fitnessCacheSize > 0 ? new FitnessCache(fitnessCacheSize) : null;
+        this.seenGenomes = eliminateDuplicates ? new LongHashSet(populationSize) : null;
+        this.duplicatesReplaced = 0;
+        this.upperBound = Math.min(instance.lpBound(), targetFitness);
+    }
+
+    private void startWorkers() {
+        if (parallelism > 1) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        if (checkpointPath != null) {
+            checkpointWriter = new CheckpointWriter(checkpointPath);
+        }
+    }
 
-            if (checkConvergence(generation)) {
-                convergenceGeneration = generation;
-                break;
+    // Avalia a geração atual e produz a próxima; devolve false quando convergiu.
+    boolean step(int generation) {
+        if (reseedInterval > 0 && generation % reseedInterval == 0) {
+            random = RANDOM_FACTORY.create(generationSeed(generation));
+            if (checkpointWriter != null) {
+                checkpointWriter.submit(snapshot(generation));
             }
+        }
 
-            List<Chromosome> newPopulation = new ArrayList<>();
+        long start = System.nanoTime();
+        evaluatePopulation(generation);
+        long scanned = System.nanoTime();
+        double diversity = diversityAt(generation);
+        long measured = System.nanoTime();
 
-            applyElitism(newPopulation);
+        if (targetGeneration < 0 && fitnessValues[bestIndex] >= targetFitness - 1e-9) {
+            targetGeneration = generation;
+            targetNanos = System.nanoTime() - startNanos;
+        }
+
+        if (reachedBound() || checkConvergence(generation)) {
+            convergenceGeneration = generation;
+            publish(generation, diversity, scanned - start, measured - scanned, 0);
+            return false;
+        }
 
-            while (newPopulation.size() < populationSize) {
-                Chromosome parent1 = tournamentSelection(3);
-                Chromosome parent2 = tournamentSelection(3);
+        Chromosome[] newPopulation = new Chromosome[populationSize];
 
-                Chromosome[] offspring;
-                if (random.nextDouble() < crossoverRate) {
-                    offspring = crossover(parent1, parent2);
-                } else {
-                    offspring = new Chromosome[]{parent1, parent2};
+        int filled = applyElitism(newPopulation);
+
+        if (pool != null) {
+            breedParallel(newPopulation, filled);
+        } else {
+            breed(newPopulation, filled, populationSize, random);
+        }
+
+        if (seenGenomes != null) {
+            replaceDuplicates(newPopulation);
+        }
+
+        population = Arrays.asList(newPopulation);
+        populationScanned = false;
+        generationEvaluations += populationSize - filled;
+        evaluations += populationSize - filled;
+
+        publish(generation, diversity, scanned - start, measured - scanned,
+                System.nanoTime() - measured);
+        return true;
+    }
+
+    private void publish(int generation, double diversity, long statisticsNanos,
+                         long diversityNanos, long breedingNanos) {
+        lastStats = new GenerationStats(generation, fitnessValues[bestIndex], averageFitness,
+                worstFitness, diversity, generationEvaluations, evaluations, statisticsNanos,
+                diversityNanos, breedingNanos);
+        generationEvaluations = 0;
+
+        if (history != null) {
+            history.onGeneration(lastStats);
+        }
+        for (GenerationListener listener : listeners) {
+            listener.onGeneration(lastStats);
+        }
+    }
+
+    void finish() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        if (checkpointWriter != null) {
+            checkpointWriter.close();
+        }
+    }
+
+    private long generationSeed(int generation) {
+        return seed ^ (0x9E3779B97F4A7C15L * (generation + 1L));
+    }
+
+    // Cópia profunda da população e do cache: a thread de gravação lê os indivíduos
+    // enquanto o GA segue, e o GA ainda altera o estado de avaliação deles (ex.: um pai
+    // avaliado pelo cache refaz as somas por palavra no crossover). A cópia custa uma
+    // passada pelos genomas a cada intervalo de checkpoint.
+    private Checkpoint snapshot(int generation) {
+        double[][] past = history != null
+                ? new double[][]{history.getBestFitnessHistory(), history.getAverageFitnessHistory(),
+                        history.getWorstFitnessHistory(), history.getDiversityHistory()}
+                : new double[4][0];
+        Chromosome[] individuals = new Chromosome[population.size()];
+        for (int i = 0; i < individuals.length; i++) {
+            individuals[i] = population.get(i).copy();
+        }
+        return new Checkpoint(encoding, instance.size(), instance.getCapacity(), generation,
+                reseedInterval, seed, evaluations, generationEvaluations, duplicatesReplaced,
+                System.nanoTime() - startNanos, targetGeneration, targetNanos, lastDiversity,
+                recentBest.clone(), past, individuals,
+                fitnessCache != null ? fitnessCache.copy() : null);
+    }
+
+    // Cópias dos 'count' melhores indivíduos da população atual.
+    List<Chromosome> emigrants(int count) {
+        ensureScanned();
+        int[] indices = new int[count];
+        int selected = new EliteSelector(count).select(fitnessValues, populationSize, indices);
+
+        List<Chromosome> emigrants = new ArrayList<>(selected);
+        for (int i = 0; i < selected; i++) {
+            emigrants.add(population.get(indices[i]).copy());
+        }
+        return emigrants;
+    }
+
+    // Cada imigrante substitui o pior indivíduo atual, se for melhor que ele.
+    void immigrate(List<Chromosome> migrants) {
+        ensureScanned();
+        for (Chromosome migrant : migrants) {
+            int worst = 0;
+            for (int i = 1; i < populationSize; i++) {
+                if (fitnessValues[i] < fitnessValues[worst]) {
+                    worst = i;
+                }
+            }
+
+            double fitness = migrant.getFitness();
+            if (fitness <= fitnessValues[worst]) continue;
+
+            population.set(worst, migrant);
+            fitnessValues[worst] = fitness;
+            if (fitness > fitnessValues[bestIndex]) {
+                bestIndex = worst;
+            }
+        }
+    }
+
+    private void breed(Chromosome[] newPopulation, int from, int to, RandomGenerator rng) {
+        int slot = from;
+        while (slot < to) {
+            Chromosome parent1 = tournamentSelection(3, rng);
+            Chromosome parent2 = tournamentSelection(3, rng);
+
+            Chromosome[] offspring;
+            if (rng.nextDouble() < crossoverRate) {
+                offspring = crossover(parent1, parent2, rng);
+            } else {
+                offspring = new Chromosome[]{
+                        parent1.copy(), parent2.copy()};
+            }
+            for (Chromosome child : offspring) {
+                mutate(child, rng);
+                if (fitnessCache != null) {
+                    evaluateCached(child);
                 }
-                for (Chromosome child : offspring) {
-                    mutate(child);
-                    child.calculateFitness();
-                    if (newPopulation.size() < populationSize) {
-                        newPopulation.add(child);
-                    }
+                improve(child);
+                if (slot < to) {
+                    newPopulation[slot++] = child;
                 }
             }
+        }
+    }
+
+    // Feito depois da produção (também na paralela) e com o gerador principal, para
+    // manter o resultado reprodutível. A elite entra primeiro e nunca é alterada.
+    private void replaceDuplicates(Chromosome[] newPopulation) {
+        seenGenomes.clear();
+        int size = instance.size();
+        for (int i = 0; i < populationSize; i++) {
+            Chromosome chromosome = newPopulation[i];
+            if (seenGenomes.add(chromosome.zobristHash())) continue;
+            if (i < elitismCount) continue;
 
-            population = newPopulation;
+            if (makeUnique(chromosome, size)) {
+                duplicatesReplaced++;
+            }
         }
+    }
 
-        return getBestChromosome();
+    // Inverte genes ao acaso até o genoma ficar inédito. Cada inversão passa de novo pelo
+    // reparo/busca local, que ela pode ter desfeito. Com chaves aleatórias as inversões são
+    // feitas direto no genoma e só um candidato inédito é decodificado (a decodificação
+    // ainda pode completá-lo com outros itens, então o hash é conferido de novo).
+    private boolean makeUnique(Chromosome chromosome, int size) {
+        RandomKeyChromosome keyed = chromosome instanceof RandomKeyChromosome k ? k : null;
+        boolean decoded = true;
+
+        for (int attempt = 0; attempt < MAX_DUPLICATE_RETRIES; attempt++) {
+            int gene = random.nextInt(size);
+            if (keyed != null) {
+                keyed.flipGene(gene);
+                decoded = false;
+            } else {
+                // O reparo tende a desfazer uma inversão isolada; a cada tentativa
+                // inverte-se um gene a mais antes de reparar.
+                chromosome.flip(gene);
+                for (int extra = 0; extra < attempt; extra++) {
+                    chromosome.flip(random.nextInt(size));
+                }
+                improve(chromosome);
+            }
+            if (seenGenomes.contains(chromosome.zobristHash())) continue;
+
+            if (keyed != null) {
+                keyed.decode();
+                decoded = true;
+            }
+            if (seenGenomes.add(chromosome.zobristHash())) return true;
+        }
+
+        if (!decoded) {
+            keyed.decode();
+        }
+        return false;
     }
 
-    private Chromosome tournamentSelection(int tournamentSize) {
-        Chromosome best = null;
+    private void breedParallel(Chromosome[] newPopulation, int from) {
+        int remaining = populationSize - from;
+        int chunks = Math.min(parallelism, Math.max(1, remaining / 2));
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+
+        for (int c = 0; c < chunks; c++) {
+            int start = from + (int) ((long) remaining * c / chunks);
+            int end = from + (int) ((long) remaining * (c + 1) / chunks);
+            RandomGenerator stream = random.split();
+            tasks.add(() -> {
+                breed(newPopulation, start, end, stream);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Produção de filhos interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na produção paralela de filhos", e.getCause());
+        }
+    }
+
+    Chromosome tournamentSelection(int tournamentSize, RandomGenerator random) {
+        int best = -1;
 
         for (int i = 0; i < tournamentSize; i++) {
-            Chromosome candidate = population.get(random.nextInt(populationSize));
-            if (best == null || candidate.getFitness() > best.getFitness()) {
+            int candidate = random.nextInt(populationSize);
+            if (best < 0 || fitnessValues[candidate] > fitnessValues[best]) {
                 best = candidate;
             }
         }
 
-        return best;
+        return population.get(best);
     }
 
-    private Chromosome[] crossover(Chromosome parent1, Chromosome parent2)
+    Chromosome[] crossover(Chromosome parent1, Chromosome parent2, RandomGenerator random)
     {
-        boolean[] genes1 = parent1.getGenes();
-        boolean[] genes2 = parent2.getGenes();
-        boolean[] child1 = new boolean[genes1.length];
-        boolean[] child2 = new boolean[genes2.length];
+        Chromosome child1 = newChromosome();
+        Chromosome child2 = newChromosome();
+
+        int crossoverPoint = random.nextInt(parent1.getSize());
+        if (fitnessCache != null) {
+            child1.crossoverGenes(parent1, parent2, crossoverPoint);
+            child2.crossoverGenes(parent2, parent1, crossoverPoint);
+        } else {
+            child1.crossover(parent1, parent2, crossoverPoint);
+            child2.crossover(parent2, parent1, crossoverPoint);
+        }
 
-        int crossoverPoint = random.nextInt(genes1.length);
+        return new Chromosome[]{child1, child2};
+    }
 
-        for (int i = 0; i < genes1.length; i++) {
-            if (i < crossoverPoint) {
-                child1[i] = genes1[i];
-                child2[i] = genes2[i];
-            } else {
-                child1[i] = genes2[i];
-                child2[i] = genes1[i];
-            }
+    // Todo filho passa pelo cache depois da mutação. Os de crossover chegam sem avaliação
+    // e só são avaliados por completo na falha; as cópias dos pais já trazem a avaliação
+    // incremental, que é registrada para os filhos de crossover que repetirem o genoma.
+    private void evaluateCached(Chromosome child) {
+        long key = child.zobristHash();
+        if (child.isEvaluated()) {
+            fitnessCache.record(key, child.getTotalValue(), child.getTotalWeight());
+        } else if (!fitnessCache.get(key, child)) {
+            child.calculateFitness();
+            fitnessCache.put(key, child.getTotalValue(), child.getTotalWeight());
         }
-
-        return new Chromosome[]{
-                new Chromosome(child1, items, capacity),
-                new Chromosome(child2, items, capacity)
-        };
     }
 
-    private void mutate(Chromosome chromosome) {
-        boolean[] genes = chromosome.getGenes();
+    private Chromosome newChromosome() {
+        return encoding == Encoding.RANDOM_KEY
+                ? new RandomKeyChromosome(instance)
+                : new Chromosome(instance);
+    }
 
-        for (int i = 0; i < genes.length; i++) {
-            if (random.nextDouble() < mutationRate) {
-                genes[i] = !genes[i];
-            }
+    private void improve(Chromosome chromosome) {
+        if (encoding == Encoding.RANDOM_KEY) return;
+        if (repair || localSearch) {
+            GreedyRepair.repair(chromosome);
+        }
+        if (localSearch) {
+            GreedyRepair.localSearch(chromosome);
         }
     }
 
-    private void applyElitism(List<Chromosome> newPopulation) {
-        population.sort(Comparator.comparingDouble(Chromosome::getFitness).reversed());
+    void mutate(Chromosome chromosome, RandomGenerator random) {
+        if (chromosome instanceof RandomKeyChromosome keyed) {
+            keyed.mutate(mutationSampler, random);
+            return;
+        }
 
-        for (int i = 0; i < elitismCount && i < populationSize; i++) {
-            newPopulation.add(new Chromosome(population.get(i).getGenes(), items, capacity));
+        int size = chromosome.getSize();
+        for (int i = mutationSampler.next(-1, size, random); i >= 0;
+             i = mutationSampler.next(i, size, random)) {
+            chromosome.flip(i);
         }
     }
 
+    private int applyElitism(Chromosome[] newPopulation) {
+        int count = eliteSelector.select(fitnessValues, populationSize, eliteIndices);
+        for (int i = 0; i < count; i++) {
+            newPopulation[i] = population.get(eliteIndices[i]).copy();
+        }
+        return count;
+    }
+
     private void initializePopulation() {
         population = new ArrayList<>();
         for (int i = 0; i < populationSize; i++) {
-            Chromosome chromosome = new Chromosome(items, capacity);
+            Chromosome chromosome = newChromosome();
             chromosome.initialize(random);
+            improve(chromosome);
+            if (fitnessCache != null) {
+                fitnessCache.put(chromosome.zobristHash(), chromosome.getTotalValue(),
+                        chromosome.getTotalWeight());
+            }
             population.add(chromosome);
         }
     }
 
+    private void scanFitness() {
+        bestIndex = 0;
+        for (int i = 0; i < populationSize; i++) {
+            double fitness = population.get(i).getFitness();
+            fitnessValues[i] = fitness;
+            if (fitness > fitnessValues[bestIndex]) {
+                bestIndex = i;
+            }
+        }
+        populationScanned = true;
+    }
+
     private void evaluatePopulation(int generation) {
-        double bestFitness = Double.MIN_VALUE;
+        scanFitness();
+
         double worstFitness = Double.MAX_VALUE;
         double totalFitness = 0;
 
-        for (Chromosome chrom : population) {
-            double fitness = chrom.getFitness();
-            bestFitness = Math.max(bestFitness, fitness);
-            worstFitness = Math.min(worstFitness, fitness);
-            totalFitness += fitness;
+        for (int i = 0; i < populationSize; i++) {
+            worstFitness = Math.min(worstFitness, fitnessValues[i]);
+            totalFitness += fitnessValues[i];
         }
 
-        bestFitnessHistory[generation] = bestFitness;
-        averageFitnessHistory[generation] = totalFitness / populationSize;
-        worstFitnessHistory[generation] = worstFitness;
-        diversityHistory[generation] = calculateDiversity();
+        recentBest[generation % recentBest.length] = fitnessValues[bestIndex];
+        averageFitness = totalFitness / populationSize;
+        this.worstFitness = worstFitness;
     }
-    
-    private double calculateDiversity() {
-        double totalDistance = 0;
-        int comparisons = 0;
 
-        for (int i = 0; i < population.size(); i++) {
-            for (int j = i + 1; j < population.size(); j++) {
-                totalDistance += hammingDistance(population.get(i), population.get(j));
-                comparisons++;
-            }
+    private double diversityAt(int generation) {
+        if (generation % diversityInterval == 0) {
+            lastDiversity = calculateDiversity();
         }
-
-        if (comparisons == 0) return 0;
-        
-        double averageDistance = totalDistance / comparisons;
-        return (averageDistance / items.size()) * 100.0;
+        return lastDiversity;
     }
 
-    private double hammingDistance(Chromosome c1, Chromosome c2) {
-        double distance = 0;
-        boolean[] genes1 = c1.getGenes();
-        boolean[] genes2 = c2.getGenes();
-        for (int i = 0; i < genes1.length; i++) {
-            if (genes1[i] != genes2[i]) {
-                distance++;
-            }
+    double calculateDiversity() {
+        locusCounter.reset();
+        for (Chromosome chromosome : population) {
+            locusCounter.add(chromosome.getGenome().words());
         }
-        return distance;
+        return locusCounter.diversity();
     }
 
-
     private boolean checkConvergence(int generation) {
-        if (generation < 10) return false;
+        if (generation < CONVERGENCE_WINDOW) return false;
 
-        double improvement = bestFitnessHistory[generation] - bestFitnessHistory[generation - 10];
+        int window = recentBest.length;
+        double improvement = recentBest[generation % window]
+                - recentBest[(generation - CONVERGENCE_WINDOW) % window];
         return improvement < convergenceThreshold;
     }
 
-    private Chromosome getBestChromosome() {
-        return population.stream()
-                .max(Comparator.comparingDouble(Chromosome::getFitness))
-                .orElse(population.get(0));
+    private boolean reachedBound() {
+        return getOptimalityGap() <= targetGap + 1e-9;
+    }
+
+    // Distância relativa entre o melhor indivíduo atual e o limite superior.
+    public double getOptimalityGap() {
+        if (upperBound <= 0) return 0;
+        ensureScanned();
+        return optimalityGap(fitnessValues[bestIndex], upperBound);
+    }
+
+    // Também usado pelos motores BufferedGA e OffHeapGA para o mesmo critério de parada.
+    static double optimalityGap(double best, double upperBound) {
+        if (upperBound <= 0) return 0;
+        return Math.max(0, (upperBound - best) / upperBound);
+    }
+
+    private void ensureScanned() {
+        if (!populationScanned) {
+            scanFitness();
+        }
+    }
+
+    Chromosome getBestChromosome() {
+        ensureScanned();
+        return population.get(bestIndex);
     }
     
-    public double[] getBestFitnessHistory() { return bestFitnessHistory; }
-    public double[] getAverageFitnessHistory() { return averageFitnessHistory; }
-    public double[] getWorstFitnessHistory() { return worstFitnessHistory; }
-    public double[] getDiversityHistory() { return diversityHistory; } 
+    // Históricos das gerações executadas (vazios se setRecordHistory(false)).
+    public double[] getBestFitnessHistory() {
+        return history != null ? history.getBestFitnessHistory() : new double[0];
+    }
+
+    public double[] getAverageFitnessHistory() {
+        return history != null ? history.getAverageFitnessHistory() : new double[0];
+    }
+
+    public double[] getWorstFitnessHistory() {
+        return history != null ? history.getWorstFitnessHistory() : new double[0];
+    }
+
+    public double[] getDiversityHistory() {
+        return history != null ? history.getDiversityHistory() : new double[0];
+    }
+
+    public GenerationStats getLastStats() { return lastStats; }
+    public int getParallelism() { return parallelism; }
+    public long getEvaluations() { return evaluations; }
     public int getConvergenceGeneration() { return convergenceGeneration; }
     public int getMaxGenerations() { return maxGenerations; }
+    public long getCacheHits() { return fitnessCache != null ? fitnessCache.getHits() : 0; }
+    public long getCacheMisses() { return fitnessCache != null ? fitnessCache.getMisses() : 0; }
+    public long getDuplicatesReplaced() { return duplicatesReplaced; }
+    public long getCheckpointsWritten() { return checkpointWriter != null ? checkpointWriter.getWritten() : 0; }
+    public long getCheckpointsSkipped() { return checkpointWriter != null ? checkpointWriter.getSkipped() : 0; }
+
+    // Geração e tempo (ns desde o início) em que o valor alvo foi atingido; -1 se não foi.
+    public int getTargetGeneration() { return targetGeneration; }
+    public long getTargetNanos() { return targetNanos; }
 }
\ No newline at end of file
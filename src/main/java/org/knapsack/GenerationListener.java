@@ -0,0 +1,8 @@
+package org.knapsack;
+
+// Chamado pelo GA ao fim de cada geração, na thread que conduz a execução.
+@FunctionalInterface
+public interface GenerationListener
+{
+    void onGeneration(GenerationStats stats);
+}
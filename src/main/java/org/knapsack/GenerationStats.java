@@ -0,0 +1,41 @@
+package org.knapsack;
+
+// Resumo de uma geração entregue aos GenerationListener. Os tempos são da própria
+// geração, em nanossegundos, separados por fase: leitura das aptidões e estatísticas da
+// população, diversidade e reprodução. A avaliação dos filhos é incremental (feita no
+// crossover e em cada gene mutado) ou passa pelo cache durante a reprodução, então fica
+// em breedingNanos. 'evaluations' conta os indivíduos avaliados nesta geração e
+// 'totalEvaluations' os da execução até aqui.
+public final class GenerationStats
+{
+    public final int generation;
+    public final double bestFitness;
+    public final double averageFitness;
+    public final double worstFitness;
+    public final double diversity;
+    public final long evaluations;
+    public final long totalEvaluations;
+    public final long statisticsNanos;
+    public final long diversityNanos;
+    public final long breedingNanos;
+
+    public GenerationStats(int generation, double bestFitness, double averageFitness,
+                           double worstFitness, double diversity, long evaluations,
+                           long totalEvaluations, long statisticsNanos, long diversityNanos,
+                           long breedingNanos) {
+        this.generation = generation;
+        this.bestFitness = bestFitness;
+        this.averageFitness = averageFitness;
+        this.worstFitness = worstFitness;
+        this.diversity = diversity;
+        this.evaluations = evaluations;
+        this.totalEvaluations = totalEvaluations;
+        this.statisticsNanos = statisticsNanos;
+        this.diversityNanos = diversityNanos;
+        this.breedingNanos = breedingNanos;
+    }
+
+    public long totalNanos() {
+        return statisticsNanos + diversityNanos + breedingNanos;
+    }
+}
@@ -0,0 +1,124 @@
+package org.knapsack;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+public final class Genome
+{
+    private static final int WORD_SHIFT = 6;
+
+    private final long[] words;
+    private final int size;
+
+    public Genome(int size) {
+        this.size = size;
+        this.words = new long[wordCount(size)];
+    }
+
+    private Genome(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    public static int wordCount(int size) {
+        return (size + Long.SIZE - 1) >>> WORD_SHIFT;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    public void set(int index, boolean value) {
+        if (value) {
+            words[index >>> WORD_SHIFT] |= 1L << index;
+        } else {
+            words[index >>> WORD_SHIFT] &= ~(1L << index);
+        }
+    }
+
+    public void flip(int index) {
+        words[index >>> WORD_SHIFT] ^= 1L << index;
+    }
+
+    public void randomize(RandomGenerator random) {
+        randomize(words, size, random);
+    }
+
+    static void randomize(long[] words, int size, RandomGenerator random) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] = random.nextLong();
+        }
+        if (words.length > 0) {
+            words[words.length - 1] &= lastWordMask(size);
+        }
+    }
+
+    public void copyFrom(Genome other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    public Genome copy() {
+        return new Genome(words.clone(), size);
+    }
+
+    public int hammingDistance(Genome other) {
+        return hammingDistance(words, other.words);
+    }
+
+    static int hammingDistance(long[] a, long[] b) {
+        int distance = 0;
+        for (int w = 0; w < a.length; w++) {
+            distance += Long.bitCount(a[w] ^ b[w]);
+        }
+        return distance;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Filho 1 recebe [0, point) de a e [point, size) de b; filho 2 o inverso.
+    public static void crossover(Genome a, Genome b, int point, Genome child1, Genome child2) {
+        crossover(a.words, b.words, point, child1.words);
+        crossover(b.words, a.words, point, child2.words);
+    }
+
+    static void crossover(long[] head, long[] tail, int point, long[] child) {
+        int splitWord = point >>> WORD_SHIFT;
+        int length = head.length;
+
+        System.arraycopy(head, 0, child, 0, Math.min(splitWord, length));
+        if (splitWord < length) {
+            long lowMask = (1L << point) - 1;
+            child[splitWord] = (head[splitWord] & lowMask) | (tail[splitWord] & ~lowMask);
+            System.arraycopy(tail, splitWord + 1, child, splitWord + 1, length - splitWord - 1);
+        }
+    }
+
+    public int size() { return size; }
+    public int wordCount() { return words.length; }
+    public long word(int index) { return words[index]; }
+
+    long[] words() { return words; }
+
+    private static long lastWordMask(int size) {
+        int used = size & (Long.SIZE - 1);
+        return used == 0 ? -1L : (1L << used) - 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Genome other)) return false;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,86 @@
+package org.knapsack;
+
+// Operadores meméticos sobre a ordem valor/peso da instância (KnapsackInstance.ratioOrder).
+// Todas as alterações passam por Chromosome.flip, então avaliação e hash seguem incrementais.
+final class GreedyRepair
+{
+    // Itens de cada lado da troca considerados pela busca local, e trocas por chamada.
+    static final int NEIGHBORHOOD = 64;
+
+    private GreedyRepair() {}
+
+    // Retira os itens de pior razão até caber e depois completa com os de melhor razão
+    // que ainda cabem. O resultado é sempre viável.
+    static void repair(Chromosome chromosome) {
+        KnapsackInstance instance = chromosome.getInstance();
+        Genome genes = chromosome.getGenome();
+        int[] order = instance.ratioOrder();
+        double capacity = instance.getCapacity();
+
+        for (int k = order.length - 1; k >= 0 && chromosome.getTotalWeight() > capacity; k--) {
+            if (genes.get(order[k])) {
+                chromosome.flip(order[k]);
+            }
+        }
+        fill(chromosome, order);
+    }
+
+    // Busca local por trocas (sai um item escolhido, entra um de fora) com primeira melhora,
+    // repetida até nenhuma troca aumentar o valor. Espera um cromossomo viável.
+    // A vizinhança é limitada pela ordem de razão: só saem os NEIGHBORHOOD escolhidos de
+    // pior razão e só entram os NEIGHBORHOOD de fora de melhor razão, e são feitas no máximo
+    // NEIGHBORHOOD trocas. Cada rodada custa O(n + NEIGHBORHOOD²) em vez de O(n²); com até
+    // NEIGHBORHOOD itens a vizinhança é a completa.
+    static void localSearch(Chromosome chromosome) {
+        KnapsackInstance instance = chromosome.getInstance();
+        Genome genes = chromosome.getGenome();
+        int[] order = instance.ratioOrder();
+        double capacity = instance.getCapacity();
+        int[] outs = new int[Math.min(NEIGHBORHOOD, order.length)];
+        int[] ins = new int[outs.length];
+
+        for (int swaps = 0; swaps < NEIGHBORHOOD; swaps++) {
+            double slack = capacity - chromosome.getTotalWeight();
+            int outCount = 0;
+            for (int k = order.length - 1; k >= 0 && outCount < outs.length; k--) {
+                if (genes.get(order[k])) outs[outCount++] = order[k];
+            }
+            int inCount = 0;
+            for (int k = 0; k < order.length && inCount < ins.length; k++) {
+                if (!genes.get(order[k])) ins[inCount++] = order[k];
+            }
+
+            boolean improved = false;
+            search:
+            for (int o = 0; o < outCount; o++) {
+                int out = outs[o];
+                for (int i = 0; i < inCount; i++) {
+                    int in = ins[i];
+                    if (instance.getValue(in) <= instance.getValue(out)) continue;
+                    if (instance.getWeight(in) - instance.getWeight(out) > slack) continue;
+
+                    chromosome.flip(out);
+                    chromosome.flip(in);
+                    improved = true;
+                    break search;
+                }
+            }
+            if (!improved) return;
+            fill(chromosome, order);
+        }
+    }
+
+    private static void fill(Chromosome chromosome, int[] order) {
+        KnapsackInstance instance = chromosome.getInstance();
+        Genome genes = chromosome.getGenome();
+        double slack = instance.getCapacity() - chromosome.getTotalWeight();
+
+        for (int index : order) {
+            if (instance.getValue(index) <= 0) break;
+            if (!genes.get(index) && instance.getWeight(index) <= slack) {
+                chromosome.flip(index);
+                slack -= instance.getWeight(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.knapsack;
+
+import java.util.Arrays;
+
+// Histórico em memória das gerações efetivamente executadas. Os vetores crescem sob
+// demanda, então não é preciso reservar 'maxGenerations' posições de antemão.
+public class HistoryRecorder implements GenerationListener
+{
+    private double[] best = new double[16];
+    private double[] average = new double[16];
+    private double[] worst = new double[16];
+    private double[] diversity = new double[16];
+    private int size;
+
+    @Override
+    public void onGeneration(GenerationStats stats) {
+        if (size == best.length) {
+            int capacity = size * 2;
+            best = Arrays.copyOf(best, capacity);
+            average = Arrays.copyOf(average, capacity);
+            worst = Arrays.copyOf(worst, capacity);
+            diversity = Arrays.copyOf(diversity, capacity);
+        }
+        best[size] = stats.bestFitness;
+        average[size] = stats.averageFitness;
+        worst[size] = stats.worstFitness;
+        diversity[size] = stats.diversity;
+        size++;
+    }
+
+    public int size() { return size; }
+    public double[] getBestFitnessHistory() { return Arrays.copyOf(best, size); }
+    public double[] getAverageFitnessHistory() { return Arrays.copyOf(average, size); }
+    public double[] getWorstFitnessHistory() { return Arrays.copyOf(worst, size); }
+    public double[] getDiversityHistory() { return Arrays.copyOf(diversity, size); }
+}
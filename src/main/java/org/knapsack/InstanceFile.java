@@ -0,0 +1,123 @@
+package org.knapsack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Formato binário colunar de instâncias, em little-endian:
+// [magia:int][versão:int][itens:long][capacidade:double][pesos:double...][valores:double...].
+// A leitura mapeia o arquivo e copia cada coluna em bloco para um vetor primitivo,
+// sem criar um Item por item.
+public final class InstanceFile
+{
+    static final int MAGIC = 0x4B4E4150; // "KNAP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    // Maior trecho mapeado de uma vez (limite de um MappedByteBuffer).
+    private static final long MAX_MAPPING = 1L << 30;
+
+    private InstanceFile() {}
+
+    public static KnapsackInstance read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Arquivo de instância truncado: " + path);
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Não é um arquivo de instância: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versão de arquivo não suportada: " + version);
+            }
+            long count = header.getLong();
+            double capacity = header.getDouble();
+
+            long columnBytes = count * Double.BYTES;
+            if (count < 0 || count > Integer.MAX_VALUE - 8
+                    || channel.size() < HEADER_BYTES + 2 * columnBytes) {
+                throw new IOException("Arquivo de instância inconsistente: " + count + " itens em "
+                        + channel.size() + " bytes");
+            }
+
+            double[] weights = new double[(int) count];
+            double[] values = new double[(int) count];
+            readColumn(channel, HEADER_BYTES, weights);
+            readColumn(channel, HEADER_BYTES + columnBytes, values);
+            return KnapsackInstance.wrap(weights, values, capacity);
+        }
+    }
+
+    public static void write(Path path, KnapsackInstance instance) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(channel, instance.size(), instance.getCapacity());
+
+            channel.position(HEADER_BYTES);
+            ColumnWriter writer = new ColumnWriter(channel);
+            for (double weight : instance.weights()) {
+                writer.put(weight);
+            }
+            for (double value : instance.values()) {
+                writer.put(value);
+            }
+            writer.flush();
+        }
+    }
+
+    static void writeHeader(FileChannel channel, long count, double capacity) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(count).putDouble(capacity).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    private static void readColumn(FileChannel channel, long offset, double[] column)
+            throws IOException {
+        int done = 0;
+        while (done < column.length) {
+            int chunk = (int) Math.min(column.length - done, MAX_MAPPING / Double.BYTES);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,
+                    offset + (long) done * Double.BYTES, (long) chunk * Double.BYTES);
+            mapped.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(column, done, chunk);
+            done += chunk;
+        }
+    }
+
+    // Escrita sequencial de doubles, a partir da posição atual do canal, por um buffer direto.
+    static final class ColumnWriter
+    {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        ColumnWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void put(double value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putDouble(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
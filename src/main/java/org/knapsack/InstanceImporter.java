@@ -0,0 +1,249 @@
+package org.knapsack;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.StringTokenizer;
+
+// Converte instâncias em texto para o formato do InstanceFile lendo linha a linha.
+// Os pesos vão direto para o arquivo de saída e os valores para um arquivo temporário,
+// anexado no fim; a memória usada não depende do número de itens.
+//
+// Formatos aceitos:
+//  CSV      - "peso,valor" ou "nome,peso,valor" por linha (cabeçalho opcional); a
+//             capacidade vem do argumento.
+//  PISINGER - instâncias knapPI_*: linhas "n", "c" (capacidade), "z", "time" e depois
+//             "id,lucro,peso,x" até "-----". Só a primeira instância do arquivo é lida.
+//  ORLIB    - primeira linha "n capacidade", seguida de n linhas "valor peso".
+public final class InstanceImporter
+{
+    public enum Format { CSV, PISINGER, ORLIB }
+
+    private InstanceImporter() {}
+
+    // Escolhe o formato pela primeira linha com conteúdo.
+    public static Format detect(Path input) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (line.startsWith("knapPI")) return Format.PISINGER;
+                if (line.indexOf(',') < 0 && line.indexOf(';') < 0
+                        && new StringTokenizer(line).countTokens() == 2) {
+                    return Format.ORLIB;
+                }
+                return Format.CSV;
+            }
+        }
+        throw new IOException("Arquivo vazio: " + input);
+    }
+
+    // 'capacity' é obrigatória no CSV; nos demais formatos, se não for NaN, substitui a
+    // capacidade do arquivo. Devolve o número de itens convertidos.
+    // A conversão é gravada em um temporário no mesmo diretório e movida para 'output' só
+    // no fim: se falhar, 'output' continua como estava (ausente ou com a versão anterior).
+    public static long convert(Path input, Format format, double capacity, Path output)
+            throws IOException
+    {
+        Path parent = output.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, output.getFileName().toString(), ".tmp");
+        try {
+            long count = write(input, format, capacity, temp);
+            Files.move(temp, output, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static long write(Path input, Format format, double capacity, Path output)
+            throws IOException
+    {
+        Path parent = output.toAbsolutePath().getParent();
+        Path valuesFile = Files.createTempFile(parent, "valores", ".tmp");
+
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             FileChannel values = FileChannel.open(valuesFile, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE))
+        {
+            out.position(InstanceFile.HEADER_BYTES);
+            Sink sink = new Sink(new InstanceFile.ColumnWriter(out),
+                    new InstanceFile.ColumnWriter(values));
+
+            double fileCapacity = switch (format) {
+                case CSV -> readCsv(reader, sink);
+                case PISINGER -> readPisinger(reader, sink);
+                case ORLIB -> readOrLibrary(reader, sink);
+            };
+            double finalCapacity = Double.isNaN(capacity) ? fileCapacity : capacity;
+            if (Double.isNaN(finalCapacity)) {
+                throw new IllegalArgumentException("Capacidade não informada para " + input);
+            }
+
+            sink.flush();
+            long position = InstanceFile.HEADER_BYTES + sink.count * Double.BYTES;
+            long size = values.size();
+            for (long copied = 0; copied < size; ) {
+                out.position(position + copied);
+                copied += values.transferTo(copied, size - copied, out);
+            }
+            InstanceFile.writeHeader(out, sink.count, finalCapacity);
+            return sink.count;
+        }
+    }
+
+    private static final class Sink
+    {
+        final InstanceFile.ColumnWriter weights;
+        final InstanceFile.ColumnWriter values;
+        long count;
+
+        Sink(InstanceFile.ColumnWriter weights, InstanceFile.ColumnWriter values) {
+            this.weights = weights;
+            this.values = values;
+        }
+
+        void add(double weight, double value) throws IOException {
+            weights.put(weight);
+            values.put(value);
+            count++;
+        }
+
+        void flush() throws IOException {
+            weights.flush();
+            values.flush();
+        }
+    }
+
+    private static double readCsv(BufferedReader reader, Sink sink) throws IOException {
+        String line;
+        long lineNumber = 0;
+        boolean first = true;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] fields = line.split("[,;]");
+            int weightField = fields.length >= 3 ? 1 : 0;
+            if (fields.length < 2) {
+                throw new IOException("Linha " + lineNumber + " inválida: " + line);
+            }
+            if (first && !isNumber(fields[weightField])) {
+                first = false;
+                continue;
+            }
+            first = false;
+            sink.add(parse(fields[weightField], lineNumber),
+                    parse(fields[weightField + 1], lineNumber));
+        }
+        return Double.NaN;
+    }
+
+    private static double readPisinger(BufferedReader reader, Sink sink) throws IOException {
+        String line;
+        long lineNumber = 0;
+        double capacity = Double.NaN;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("knapPI")) continue;
+            if (line.startsWith("-----")) {
+                if (sink.count > 0) break;
+                continue;
+            }
+
+            if (line.indexOf(',') < 0) {
+                StringTokenizer tokens = new StringTokenizer(line);
+                if (tokens.countTokens() == 2 && tokens.nextToken().equals("c")) {
+                    capacity = parse(tokens.nextToken(), lineNumber);
+                }
+                continue;
+            }
+
+            String[] fields = line.split(",");
+            if (fields.length < 3) {
+                throw new IOException("Linha " + lineNumber + " inválida: " + line);
+            }
+            sink.add(parse(fields[2], lineNumber), parse(fields[1], lineNumber));
+        }
+        return capacity;
+    }
+
+    private static double readOrLibrary(BufferedReader reader, Sink sink) throws IOException {
+        String line;
+        long lineNumber = 0;
+        long expected = -1;
+        double capacity = Double.NaN;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            StringTokenizer tokens = new StringTokenizer(line);
+            if (tokens.countTokens() == 0) continue;
+            if (tokens.countTokens() < 2) {
+                throw new IOException("Linha " + lineNumber + " inválida: " + line);
+            }
+
+            double first = parse(tokens.nextToken(), lineNumber);
+            double second = parse(tokens.nextToken(), lineNumber);
+            if (expected < 0) {
+                expected = (long) first;
+                capacity = second;
+                continue;
+            }
+            sink.add(second, first);
+            if (sink.count == expected) break;
+        }
+        if (sink.count != expected) {
+            throw new IOException("Esperados " + expected + " itens, lidos " + sink.count);
+        }
+        return capacity;
+    }
+
+    private static double parse(String field, long lineNumber) throws IOException {
+        try {
+            return Double.parseDouble(field.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Linha " + lineNumber + ": número inválido '" + field + "'", e);
+        }
+    }
+
+    private static boolean isNumber(String field) {
+        try {
+            Double.parseDouble(field.trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Uso: InstanceImporter <entrada> <saída> [capacidade]
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: InstanceImporter <entrada> <saída> [capacidade]");
+            System.exit(1);
+        }
+        Path input = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        double capacity = args.length > 2 ? Double.parseDouble(args[2]) : Double.NaN;
+
+        Format format = detect(input);
+        long start = System.nanoTime();
+        long count = convert(input, format, capacity, output);
+        System.out.printf("%d itens (%s) convertidos em %.1f ms%n", count, format,
+                (System.nanoTime() - start) / 1_000_000.0);
+
+        start = System.nanoTime();
+        KnapsackInstance instance = InstanceFile.read(output);
+        System.out.printf("Leitura de %s: %d itens, capacidade %.2f, %.1f ms%n", output,
+                instance.size(), instance.getCapacity(), (System.nanoTime() - start) / 1_000_000.0);
+    }
+}
@@ -0,0 +1,221 @@
+package org.knapsack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Coordenador do modelo de ilhas multiprocesso. Recebe a conexão de cada IslandWorker,
+// repassa os migrantes de cada ilha para a próxima ilha viva do anel (ordenado pelo id)
+// e coleta o histórico e o melhor indivíduo de cada uma. Ilhas que caem são puladas.
+// Cada ilha se apresenta com um id único; uma segunda conexão com o mesmo id é recusada.
+// A apresentação (HELLO) precisa chegar em 'acceptTimeoutMs'; depois dela, uma ilha que
+// fica mais de 'readTimeoutMs' sem enviar nada é tratada como caída. Como a ilha só fala
+// ao fim de cada época, 'readTimeoutMs' precisa ser maior que a época mais longa; 0 (o
+// padrão do construtor de dois argumentos) espera sem limite e só detecta quedas que
+// fecham a conexão.
+public class IslandCoordinator
+{
+    private final int expectedIslands;
+    private final int acceptTimeoutMs;
+    private final int readTimeoutMs;
+    private final Map<Integer, Connection> islands = new ConcurrentSkipListMap<>();
+    private final Map<Integer, byte[]> results = new ConcurrentSkipListMap<>();
+
+    private volatile double globalBestFitness = Double.NEGATIVE_INFINITY;
+
+    private static final class Connection
+    {
+        final int id;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        volatile boolean alive = true;
+
+        Connection(int id, Socket socket, DataInputStream in, DataOutputStream out) {
+            this.id = id;
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+        }
+    }
+
+    public IslandCoordinator(int expectedIslands, int acceptTimeoutMs) {
+        this(expectedIslands, acceptTimeoutMs, 0);
+    }
+
+    public IslandCoordinator(int expectedIslands, int acceptTimeoutMs, int readTimeoutMs) {
+        if (acceptTimeoutMs < 0 || readTimeoutMs < 0) {
+            throw new IllegalArgumentException("Tempos limite negativos: " + acceptTimeoutMs
+                    + ", " + readTimeoutMs);
+        }
+        this.expectedIslands = expectedIslands;
+        this.acceptTimeoutMs = acceptTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    public void run(int port) throws IOException, InterruptedException
+    {
+        List<Thread> handlers = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(port)) {
+            server.setSoTimeout(acceptTimeoutMs);
+            while (handlers.size() < expectedIslands) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    System.err.println("Tempo esgotado: seguindo com " + handlers.size()
+                            + " de " + expectedIslands + " ilhas");
+                    break;
+                }
+                Connection connection = register(socket);
+                if (connection == null) continue;
+
+                Thread handler = new Thread(() -> handle(connection), "coordinator-handler");
+                handler.start();
+                handlers.add(handler);
+            }
+        }
+
+        for (Thread handler : handlers) {
+            handler.join();
+        }
+    }
+
+    // Lê a apresentação da ilha, na thread de aceitação e com o tempo limite de aceitação,
+    // e a registra; a partir daí vale o tempo limite de leitura. Devolve null (e fecha o socket) se a apresentação for inválida ou o
+    // id já estiver conectado; essas conexões não contam entre as ilhas esperadas.
+    private Connection register(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(acceptTimeoutMs);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            MigrantCodec.Frame hello = MigrantCodec.readFrame(in);
+            if (hello != null && hello.type == MigrantCodec.HELLO) {
+                Connection connection = new Connection(MigrantCodec.decodeHello(hello.payload),
+                        socket, in, out);
+                if (islands.putIfAbsent(connection.id, connection) == null) {
+                    socket.setSoTimeout(readTimeoutMs);
+                    return connection;
+                }
+                System.err.println("Ilha " + connection.id + " já conectada: conexão recusada");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Apresentação inválida de " + socket.getRemoteSocketAddress()
+                    + ": " + e.getMessage());
+        }
+        closeQuietly(socket);
+        return null;
+    }
+
+    private void handle(Connection connection) {
+        try (Socket socket = connection.socket) {
+            MigrantCodec.Frame frame;
+            while ((frame = MigrantCodec.readFrame(connection.in)) != null) {
+                if (frame.type == MigrantCodec.MIGRANTS) {
+                    recordBest(MigrantCodec.bestFitness(frame.payload));
+                    relay(connection.id, frame.payload);
+                } else if (frame.type == MigrantCodec.RESULT) {
+                    MigrantCodec.checkResult(frame.payload);
+                    results.putIfAbsent(connection.id, frame.payload);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Tempo esgotado, conexão perdida ou quadro inválido: tratado como queda da ilha.
+        } finally {
+            connection.alive = false;
+            if (!results.containsKey(connection.id)) {
+                System.err.println("Ilha " + connection.id + " caiu antes de terminar");
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nada a fazer: a conexão já foi descartada.
+        }
+    }
+
+    private void relay(int from, byte[] payload) {
+        List<Connection> ring = new ArrayList<>(islands.values());
+        int position = 0;
+        while (position < ring.size() && ring.get(position).id != from) {
+            position++;
+        }
+
+        for (int step = 1; step < ring.size(); step++) {
+            Connection target = ring.get((position + step) % ring.size());
+            if (!target.alive) continue;
+            try {
+                synchronized (target.out) {
+                    MigrantCodec.writeFrame(target.out, MigrantCodec.MIGRANTS, payload);
+                }
+                return;
+            } catch (IOException e) {
+                target.alive = false;
+            }
+        }
+    }
+
+    private synchronized void recordBest(double fitness) {
+        if (fitness > globalBestFitness) {
+            globalBestFitness = fitness;
+        }
+    }
+
+    public Map<Integer, double[]> getBestFitnessHistories() {
+        Map<Integer, double[]> histories = new ConcurrentSkipListMap<>();
+        results.forEach((id, payload) ->
+                histories.put(id, MigrantCodec.decodeResultHistory(payload)));
+        return histories;
+    }
+
+    public Chromosome getGlobalBest(KnapsackInstance instance) {
+        Chromosome best = null;
+        for (byte[] payload : results.values()) {
+            Chromosome candidate = MigrantCodec.decodeResultBest(payload, instance);
+            if (best == null || candidate.getFitness() > best.getFitness()) {
+                best = candidate;
+            }
+        }
+        if (best != null) {
+            recordBest(best.getFitness());
+        }
+        return best;
+    }
+
+    public double getGlobalBestFitness() { return globalBestFitness; }
+
+    // Uso: IslandCoordinator <porta> <número de ilhas> [tempo limite de leitura em ms]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Uso: IslandCoordinator <porta> <número de ilhas>"
+                    + " [tempo limite de leitura em ms]");
+            System.exit(1);
+        }
+
+        int readTimeoutMs = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        IslandCoordinator coordinator = new IslandCoordinator(Integer.parseInt(args[1]), 60_000,
+                readTimeoutMs);
+        coordinator.run(Integer.parseInt(args[0]));
+
+        KnapsackInstance instance = KnapsackInstance.of(ExperimentRunner.createItemsFromConfig(),
+                Config.PESO_MAXIMO);
+        coordinator.getBestFitnessHistories().forEach((id, history) ->
+                System.out.printf("• Ilha %d: %d gerações, melhor fitness %.2f%n", id,
+                        history.length, history.length > 0 ? history[history.length - 1] : 0));
+        System.out.println("Melhor global: " + coordinator.getGlobalBest(instance));
+    }
+}
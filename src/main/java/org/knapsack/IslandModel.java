@@ -0,0 +1,122 @@
+package org.knapsack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+// Modelo de ilhas: cada ilha é um GA independente evoluindo em sua própria thread.
+// A cada 'migrationInterval' gerações, cada ilha envia cópias dos seus melhores
+// indivíduos às vizinhas por filas limitadas e incorpora os que recebeu.
+public class IslandModel
+{
+    public enum Topology { RING, FULLY_CONNECTED }
+
+    private final int islandCount;
+    private final Topology topology;
+    private final int migrationInterval;
+    private final int migrationSize;
+
+    private List<GA> islands;
+    private List<ArrayBlockingQueue<Chromosome>> inboxes;
+    private Chromosome best;
+
+    public IslandModel(int islandCount, Topology topology, int migrationInterval,
+                       int migrationSize) {
+        this.islandCount = Math.max(1, islandCount);
+        this.topology = topology;
+        this.migrationInterval = Math.max(1, migrationInterval);
+        this.migrationSize = Math.max(0, migrationSize);
+    }
+
+    // 'islandFactory' cria o GA de cada ilha a partir do seu índice (ex.: sementes distintas).
+    public Chromosome run(KnapsackInstance instance, IntFunction<GA> islandFactory)
+    {
+        islands = new ArrayList<>(islandCount);
+        inboxes = new ArrayList<>(islandCount);
+        int inboxCapacity = Math.max(1, migrationSize * Math.max(1, islandCount - 1));
+        for (int i = 0; i < islandCount; i++) {
+            islands.add(islandFactory.apply(i));
+            inboxes.add(new ArrayBlockingQueue<>(inboxCapacity));
+        }
+
+        List<Chromosome> results = new ArrayList<>(islandCount);
+        try (ExecutorService executor = Executors.newFixedThreadPool(islandCount)) {
+            List<Future<Chromosome>> futures = new ArrayList<>(islandCount);
+            for (int i = 0; i < islandCount; i++) {
+                int island = i;
+                futures.add(executor.submit(() -> evolve(island, instance)));
+            }
+            for (Future<Chromosome> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Modelo de ilhas interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma das ilhas", e.getCause());
+        }
+
+        best = results.get(0);
+        for (Chromosome candidate : results) {
+            if (candidate.getFitness() > best.getFitness()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private Chromosome evolve(int island, KnapsackInstance instance) {
+        GA ga = islands.get(island);
+        ga.prepare(instance);
+        try {
+            for (int generation = 0; generation < ga.getMaxGenerations(); generation++) {
+                if (!ga.step(generation)) break;
+
+                if (migrationSize > 0 && (generation + 1) % migrationInterval == 0) {
+                    migrate(island, ga);
+                }
+            }
+        } finally {
+            ga.finish();
+        }
+        return ga.getBestChromosome();
+    }
+
+    private void migrate(int island, GA ga) {
+        List<Chromosome> emigrants = ga.emigrants(migrationSize);
+        for (int target : neighbors(island)) {
+            ArrayBlockingQueue<Chromosome> inbox = inboxes.get(target);
+            for (Chromosome emigrant : emigrants) {
+                // Fila cheia significa que o destino está atrasado: descarta em vez de esperar.
+                if (!inbox.offer(emigrant.copy())) break;
+            }
+        }
+
+        List<Chromosome> arrivals = new ArrayList<>();
+        inboxes.get(island).drainTo(arrivals);
+        if (!arrivals.isEmpty()) {
+            ga.immigrate(arrivals);
+        }
+    }
+
+    private int[] neighbors(int island) {
+        if (islandCount == 1) return new int[0];
+        if (topology == Topology.RING) {
+            return new int[]{(island + 1) % islandCount};
+        }
+
+        int[] targets = new int[islandCount - 1];
+        for (int i = 0, t = 0; i < islandCount; i++) {
+            if (i != island) targets[t++] = i;
+        }
+        return targets;
+    }
+
+    public List<GA> getIslands() { return islands; }
+    public Chromosome getBest() { return best; }
+}
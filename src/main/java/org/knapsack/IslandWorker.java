@@ -0,0 +1,128 @@
+package org.knapsack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Ilha executada em um processo próprio. Usa o laço do GA (prepare/step/finish) e troca
+// migrantes com as demais ilhas através do IslandCoordinator. Se o coordenador cair,
+// a ilha continua evoluindo sozinha até o fim.
+public class IslandWorker
+{
+    private final int islandId;
+    private final int migrationInterval;
+    private final int migrationSize;
+    private final ConcurrentLinkedQueue<Chromosome> inbox = new ConcurrentLinkedQueue<>();
+
+    private DataOutputStream out;
+    private volatile boolean connected;
+
+    public IslandWorker(int islandId, int migrationInterval, int migrationSize) {
+        this.islandId = islandId;
+        this.migrationInterval = Math.max(1, migrationInterval);
+        this.migrationSize = Math.max(0, migrationSize);
+    }
+
+    public Chromosome run(String host, int port, KnapsackInstance instance, GA ga)
+            throws IOException
+    {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            connected = true;
+            send(MigrantCodec.HELLO, MigrantCodec.encodeHello(islandId));
+            startReader(in, instance);
+
+            ga.prepare(instance);
+            try {
+                for (int generation = 0; generation < ga.getMaxGenerations(); generation++) {
+                    if (!ga.step(generation)) break;
+
+                    if ((generation + 1) % migrationInterval == 0) {
+                        migrate(ga);
+                    }
+                }
+            } finally {
+                ga.finish();
+            }
+
+            Chromosome best = ga.getBestChromosome();
+            send(MigrantCodec.RESULT, MigrantCodec.encodeResult(ga.getBestFitnessHistory(), best));
+            if (connected) {
+                socket.shutdownOutput();
+            }
+            return best;
+        }
+    }
+
+    private void migrate(GA ga) {
+        if (migrationSize > 0) {
+            send(MigrantCodec.MIGRANTS, MigrantCodec.encodeBatch(ga.emigrants(migrationSize)));
+        }
+
+        List<Chromosome> arrivals = new ArrayList<>();
+        for (Chromosome migrant; (migrant = inbox.poll()) != null; ) {
+            arrivals.add(migrant);
+        }
+        if (!arrivals.isEmpty()) {
+            ga.immigrate(arrivals);
+        }
+    }
+
+    private void startReader(DataInputStream in, KnapsackInstance instance) {
+        Thread reader = new Thread(() -> {
+            try {
+                MigrantCodec.Frame frame;
+                while ((frame = MigrantCodec.readFrame(in)) != null) {
+                    if (frame.type == MigrantCodec.MIGRANTS) {
+                        inbox.addAll(MigrantCodec.decodeBatch(frame.payload, instance));
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // Conexão perdida ou quadro inválido: a ilha segue sem migração.
+            } finally {
+                connected = false;
+            }
+        }, "island-" + islandId + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void send(byte type, byte[] payload) {
+        if (!connected) return;
+        try {
+            MigrantCodec.writeFrame(out, type, payload);
+        } catch (IOException e) {
+            connected = false;
+            System.err.println("Ilha " + islandId + ": coordenador indisponível, seguindo isolada");
+        }
+    }
+
+    // Uso: IslandWorker <host> <porta> <id da ilha>
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: IslandWorker <host> <porta> <id da ilha>");
+            System.exit(1);
+        }
+        int id = Integer.parseInt(args[2]);
+
+        int populacao = Math.max(2, Config.N_CROMOSSOMOS / Config.NUM_ILHAS);
+        GA ga = new GA(populacao, Config.TAXA_CROSSOVER, Config.TAXA_MUTACAO,
+                Config.ELITISMO, Config.GERACOES, 0.001);
+        ga.setSeed(Config.SEMENTE + id);
+
+        KnapsackInstance instance = KnapsackInstance.of(ExperimentRunner.createItemsFromConfig(),
+                Config.PESO_MAXIMO);
+        IslandWorker worker = new IslandWorker(id, Config.INTERVALO_MIGRACAO,
+                Config.TAMANHO_MIGRACAO);
+        Chromosome best = worker.run(args[0], Integer.parseInt(args[1]), instance, ga);
+        System.out.println("Ilha " + id + " → " + best);
+    }
+}
@@ -0,0 +1,178 @@
+package org.knapsack;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class KnapsackInstance
+{
+    private final double[] weights;
+    private final double[] values;
+    private final String[] names;
+    private final double capacity;
+
+    private volatile int[] ratioOrder;
+    private volatile long[] zobristKeys;
+
+    public KnapsackInstance(double[] weights, double[] values, double capacity) {
+        this(weights.clone(), values.clone(), null, capacity);
+        if (weights.length != values.length) {
+            throw new IllegalArgumentException("Pesos e valores com tamanhos diferentes: "
+                    + weights.length + " != " + values.length);
+        }
+    }
+
+    private KnapsackInstance(double[] weights, double[] values, String[] names, double capacity) {
+        this.weights = weights;
+        this.values = values;
+        this.names = names;
+        this.capacity = capacity;
+    }
+
+    // Adota os vetores sem copiar (ex.: recém-lidos de um InstanceFile).
+    static KnapsackInstance wrap(double[] weights, double[] values, double capacity) {
+        if (weights.length != values.length) {
+            throw new IllegalArgumentException("Pesos e valores com tamanhos diferentes: "
+                    + weights.length + " != " + values.length);
+        }
+        return new KnapsackInstance(weights, values, null, capacity);
+    }
+
+    // Chaves de Zobrist (uma por item) geradas por SplitMix64 a partir de uma semente
+    // fixa: o mesmo genoma tem o mesmo hash em qualquer execução ou processo.
+    private static long[] generateZobristKeys(int size) {
+        long[] keys = new long[size];
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < size; i++) {
+            long z = (state += 0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            keys[i] = z ^ (z >>> 31);
+        }
+        return keys;
+    }
+
+    public static KnapsackInstance of(List<Item> items, double capacity) {
+        int n = items.size();
+        double[] weights = new double[n];
+        double[] values = new double[n];
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++) {
+            Item item = items.get(i);
+            weights[i] = item.getWeight();
+            values[i] = item.getValue();
+            names[i] = item.getName();
+        }
+        return new KnapsackInstance(weights, values, names, capacity);
+    }
+
+    public KnapsackInstance withCapacity(double newCapacity) {
+        KnapsackInstance resized = new KnapsackInstance(weights, values, names, newCapacity);
+        resized.ratioOrder = ratioOrder;
+        resized.zobristKeys = zobristKeys;
+        return resized;
+    }
+
+    public int size() { return weights.length; }
+    public double getCapacity() { return capacity; }
+    public double getWeight(int index) { return weights[index]; }
+    public double getValue(int index) { return values[index]; }
+
+    public String getName(int index) {
+        return names != null ? names[index] : "Item" + (index + 1);
+    }
+
+    // Limite superior da relaxação linear (Dantzig): itens inteiros em ordem de
+    // valor/peso e a fração do primeiro que não cabe. Nenhuma solução 0/1 o supera.
+    public double lpBound() {
+        double remaining = capacity;
+        double bound = 0;
+        for (int index : ratioOrder()) {
+            if (values[index] <= 0) break;
+            if (weights[index] <= remaining) {
+                remaining -= weights[index];
+                bound += values[index];
+            } else {
+                return bound + values[index] * remaining / weights[index];
+            }
+        }
+        return bound;
+    }
+
+    // Índices dos itens em ordem decrescente de valor/peso (empates pelo menor índice).
+    // Este e as chaves de Zobrist são calculados na primeira consulta e compartilhados com
+    // withCapacity.
+    int[] ratioOrder() {
+        int[] order = ratioOrder;
+        if (order == null) {
+            order = sortByRatio();
+            ratioOrder = order;
+        }
+        return order;
+    }
+
+    // Ordenação só com vetores primitivos, para instâncias de milhões de itens. A chave de
+    // 64 bits de cada razão (ordem de long igual à ordem decrescente da razão) não cabe em
+    // um long junto com o índice, então vai em duas passadas: primeiro pelos 32 bits altos
+    // com o índice nos baixos; depois, em cada trecho de altos iguais, pelos 32 bits baixos
+    // com a posição no trecho, o que preserva o desempate pelo índice.
+    private int[] sortByRatio() {
+        int n = size();
+        long[] keys = new long[n];
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = descendingKey(ratio(i));
+            packed[i] = (keys[i] & 0xFFFFFFFF00000000L) | i;
+        }
+        Arrays.sort(packed);
+
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = (int) packed[k];
+        }
+
+        int[] run = null;
+        for (int start = 0; start < n; ) {
+            long high = packed[start] >>> 32;
+            int end = start + 1;
+            while (end < n && packed[end] >>> 32 == high) end++;
+            if (end - start > 1) {
+                // Os baixos vão sem sinal; trocar o bit 31 dá a mesma ordem como int.
+                for (int k = start; k < end; k++) {
+                    long low = (keys[order[k]] ^ 0x80000000L) << 32;
+                    packed[k] = low | (k - start);
+                }
+                Arrays.sort(packed, start, end);
+                if (run == null) run = new int[n];
+                System.arraycopy(order, start, run, 0, end - start);
+                for (int k = start; k < end; k++) {
+                    order[k] = run[(int) packed[k]];
+                }
+            }
+            start = end;
+        }
+        return order;
+    }
+
+    // Long cuja ordem crescente é a ordem decrescente de Double.compare.
+    private static long descendingKey(double ratio) {
+        long bits = Double.doubleToLongBits(ratio);
+        return ~(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+    }
+
+    private double ratio(int index) {
+        if (weights[index] > 0) return values[index] / weights[index];
+        return values[index] > 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+    }
+
+    double[] weights() { return weights; }
+    double[] values() { return values; }
+
+    long[] zobristKeys() {
+        long[] keys = zobristKeys;
+        if (keys == null) {
+            keys = generateZobristKeys(size());
+            zobristKeys = keys;
+        }
+        return keys;
+    }
+}
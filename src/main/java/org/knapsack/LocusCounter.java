@@ -0,0 +1,61 @@
+package org.knapsack;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+// Conta, para cada locus, quantos indivíduos têm o gene ativo. Com k uns em um locus
+// e P indivíduos, esse locus contribui k·(P−k) para a soma das distâncias de Hamming
+// entre todos os pares, o que dá a diversidade média em O(P × n) em vez de O(P² × n).
+final class LocusCounter
+{
+    private final int[] counts;
+    private int individuals;
+
+    LocusCounter(int size) {
+        this.counts = new int[size];
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        individuals = 0;
+    }
+
+    void add(long[] words) {
+        for (int w = 0; w < words.length; w++) {
+            addWord(words[w], w);
+        }
+        individuals++;
+    }
+
+    // Mesmo que add(long[]), para um genoma guardado fora do heap a partir da palavra 'first'.
+    void add(MemorySegment genomes, long first, int wordCount) {
+        for (int w = 0; w < wordCount; w++) {
+            addWord(genomes.getAtIndex(ValueLayout.JAVA_LONG, first + w), w);
+        }
+        individuals++;
+    }
+
+    private void addWord(long word, int wordIndex) {
+        int base = wordIndex << 6;
+        while (word != 0) {
+            counts[base + Long.numberOfTrailingZeros(word)]++;
+            word &= word - 1;
+        }
+    }
+
+    int size() { return counts.length; }
+
+    // Distância de Hamming média entre pares, em % do tamanho do genoma.
+    double diversity() {
+        if (individuals < 2 || counts.length == 0) return 0;
+
+        double totalDistance = 0;
+        for (int k : counts) {
+            totalDistance += (double) k * (individuals - k);
+        }
+
+        double pairs = (double) individuals * (individuals - 1) / 2;
+        return (totalDistance / pairs / counts.length) * 100.0;
+    }
+}
@@ -0,0 +1,52 @@
+package org.knapsack;
+
+import java.util.Arrays;
+
+// Conjunto de longs com endereçamento aberto (sondagem linear) sobre um vetor primitivo,
+// sem objetos por elemento. Usado uma vez por geração, então não há remoção.
+// O zero marca posição vazia e por isso é guardado à parte.
+final class LongHashSet
+{
+    private final long[] slots;
+    private final int mask;
+    private boolean containsZero;
+
+    LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(1, expectedSize)) << 2;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Devolve false se o valor já estava no conjunto.
+    boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            return true;
+        }
+
+        int slot = (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (slots[slot] != 0) {
+            if (slots[slot] == value) return false;
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        return true;
+    }
+
+    boolean contains(long value) {
+        if (value == 0) return containsZero;
+
+        int slot = (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (slots[slot] != 0) {
+            if (slots[slot] == value) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    void clear() {
+        Arrays.fill(slots, 0);
+        containsZero = false;
+    }
+}
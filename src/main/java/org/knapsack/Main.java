@@ -27,7 +27,8 @@ public class Main
         System.out.println("├─ Gerações.....: " + Config.GERACOES);
         System.out.println("├─ Crossover....: " + (Config.TAXA_CROSSOVER * 100) + "%");
         System.out.println("├─ Mutação......: " + (Config.TAXA_MUTACAO * 100) + "%");
-        System.out.println("└─ Elitismo.....: " + Config.ELITISMO);
+        System.out.println("├─ Elitismo.....: " + Config.ELITISMO);
+        System.out.println("└─ Avaliação....: " + BatchEvaluators.description());
     }
 
     private static void showGraphicsMenu(GA ga) {
@@ -0,0 +1,72 @@
+package org.knapsack;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores e histogramas sem trava, que podem ser compartilhados por execuções
+// concorrentes. Como listener, acumula gerações, avaliações e o tempo de cada fase.
+public class MetricsRegistry implements GenerationListener
+{
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    // Histograma em baldes de potência de 2: o balde b conta valores em [2^(b-1), 2^b).
+    public static final class Histogram
+    {
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+
+        public void record(long value) {
+            long v = Math.max(0, value);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(v));
+            count.increment();
+            sum.add(v);
+        }
+
+        public long count() { return count.sum(); }
+
+        public double mean() {
+            long n = count.sum();
+            return n > 0 ? (double) sum.sum() / n : 0;
+        }
+
+        // Limite superior do balde que contém o quantil q (0 < q <= 1).
+        public long quantileUpperBound(double q) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(q * n);
+            long seen = 0;
+            for (int b = 0; b < buckets.length(); b++) {
+                seen += buckets.get(b);
+                if (seen >= rank) {
+                    return b == 0 ? 0 : (b >= Long.SIZE ? Long.MAX_VALUE : (1L << b) - 1);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    public Map<String, LongAdder> getCounters() { return counters; }
+    public Map<String, Histogram> getHistograms() { return histograms; }
+
+    @Override
+    public void onGeneration(GenerationStats stats) {
+        counter("geracoes").increment();
+        counter("avaliacoes").add(stats.evaluations);
+
+        histogram("nanos.estatisticas").record(stats.statisticsNanos);
+        histogram("nanos.diversidade").record(stats.diversityNanos);
+        histogram("nanos.reproducao").record(stats.breedingNanos);
+    }
+}
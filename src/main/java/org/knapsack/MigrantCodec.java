@@ -0,0 +1,227 @@
+package org.knapsack;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// Codificação binária das mensagens entre ilhas e coordenador.
+// Quadro: [tipo:byte][tamanho:int][carga]. Lote de migrantes:
+// [quantidade:int][genes:int] e, por migrante, [fitness:double][palavras do genoma:long...].
+// Tamanhos lidos da rede são conferidos antes de alocar: um quadro acima de
+// MAX_FRAME_BYTES é recusado com IOException e um lote que não cabe na própria carga,
+// ou com bits ligados além do último gene, com IllegalArgumentException.
+final class MigrantCodec
+{
+    static final byte HELLO = 1;
+    static final byte MIGRANTS = 2;
+    static final byte RESULT = 3;
+
+    // Folga para lotes de genomas com milhões de genes.
+    static final int MAX_FRAME_BYTES = 64 << 20;
+
+    private MigrantCodec() {}
+
+    static final class Frame
+    {
+        final byte type;
+        final byte[] payload;
+
+        Frame(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+
+    static void writeFrame(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        out.writeByte(type);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    // Devolve null quando a outra ponta fechou a conexão.
+    static Frame readFrame(DataInputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) return null;
+
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Tamanho de quadro inválido: " + length + " bytes (máximo "
+                    + MAX_FRAME_BYTES + ")");
+        }
+        byte[] payload = new byte[length];
+        try {
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        return new Frame((byte) type, payload);
+    }
+
+    static byte[] encodeHello(int islandId) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(islandId).array();
+    }
+
+    static int decodeHello(byte[] payload) {
+        if (payload.length != Integer.BYTES) {
+            throw new IllegalArgumentException("Apresentação com " + payload.length + " bytes");
+        }
+        return ByteBuffer.wrap(payload).getInt();
+    }
+
+    static byte[] encodeBatch(List<Chromosome> migrants) {
+        ByteBuffer buffer = ByteBuffer.allocate(batchSize(migrants));
+        putBatch(buffer, migrants);
+        return buffer.array();
+    }
+
+    static List<Chromosome> decodeBatch(byte[] payload, KnapsackInstance instance) {
+        return getBatch(ByteBuffer.wrap(payload), instance);
+    }
+
+    // Maior fitness de um lote, lido sem reconstruir os cromossomos.
+    static double bestFitness(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        checkHeader(buffer, 2 * Integer.BYTES);
+        int count = buffer.getInt();
+        int words = checkBatch(buffer, count, buffer.getInt());
+        double best = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m < count; m++) {
+            best = Math.max(best, buffer.getDouble());
+            buffer.position(buffer.position() + words * Long.BYTES);
+        }
+        return best;
+    }
+
+    // Resultado final de uma ilha: histórico do melhor fitness e o melhor indivíduo.
+    static byte[] encodeResult(double[] bestFitnessHistory, Chromosome best) {
+        List<Chromosome> batch = List.of(best);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES
+                + bestFitnessHistory.length * Double.BYTES + batchSize(batch));
+        buffer.putInt(bestFitnessHistory.length);
+        for (double fitness : bestFitnessHistory) {
+            buffer.putDouble(fitness);
+        }
+        putBatch(buffer, batch);
+        return buffer.array();
+    }
+
+    // Confere os tamanhos de um resultado recebido, antes de guardá-lo para decodificar depois.
+    static void checkResult(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int historyLength = checkHistory(buffer);
+        buffer.position(buffer.position() + historyLength * Double.BYTES);
+        checkHeader(buffer, 2 * Integer.BYTES);
+        int count = buffer.getInt();
+        checkBatch(buffer, count, buffer.getInt());
+        if (count != 1) {
+            throw new IllegalArgumentException("Resultado com " + count + " indivíduos");
+        }
+    }
+
+    static double[] decodeResultHistory(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        double[] history = new double[checkHistory(buffer)];
+        for (int i = 0; i < history.length; i++) {
+            history[i] = buffer.getDouble();
+        }
+        return history;
+    }
+
+    static Chromosome decodeResultBest(byte[] payload, KnapsackInstance instance) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int historyLength = checkHistory(buffer);
+        buffer.position(buffer.position() + historyLength * Double.BYTES);
+        return getBatch(buffer, instance).get(0);
+    }
+
+    private static int batchSize(List<Chromosome> migrants) {
+        int words = migrants.isEmpty() ? 0 : migrants.get(0).getGenome().wordCount();
+        return 2 * Integer.BYTES + migrants.size() * (Double.BYTES + words * Long.BYTES);
+    }
+
+    private static void putBatch(ByteBuffer buffer, List<Chromosome> migrants) {
+        buffer.putInt(migrants.size());
+        buffer.putInt(migrants.isEmpty() ? 0 : migrants.get(0).getSize());
+        for (Chromosome migrant : migrants) {
+            buffer.putDouble(migrant.getFitness());
+            Genome genome = migrant.getGenome();
+            for (int w = 0; w < genome.wordCount(); w++) {
+                buffer.putLong(genome.word(w));
+            }
+        }
+    }
+
+    // Confere que o lote cabe na carga e que a última palavra de cada genoma não tem bits
+    // além de 'size' (somas e hashes por palavra indexariam itens inexistentes). Não move a
+    // posição do buffer; devolve o número de palavras por genoma.
+    private static int checkBatch(ByteBuffer buffer, int count, int size) {
+        if (count < 0 || size < 0) {
+            throw new IllegalArgumentException("Lote de " + count + " migrantes com " + size
+                    + " genes");
+        }
+        int words = Genome.wordCount(size);
+        long stride = Double.BYTES + (long) words * Long.BYTES;
+        if (count * stride > buffer.remaining()) {
+            throw new IllegalArgumentException("Lote de " + count + " migrantes não cabe em "
+                    + buffer.remaining() + " bytes");
+        }
+
+        if ((size & 63) != 0) {
+            long tail = -1L << size;
+            for (int m = 0; m < count; m++) {
+                int last = buffer.position() + (int) (m * stride) + Double.BYTES
+                        + (words - 1) * Long.BYTES;
+                if ((buffer.getLong(last) & tail) != 0) {
+                    throw new IllegalArgumentException("Migrante " + m + " com bits além do gene "
+                            + size);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static void checkHeader(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() < bytes) {
+            throw new IllegalArgumentException("Carga truncada: " + buffer.remaining() + " bytes");
+        }
+    }
+
+    private static int checkHistory(ByteBuffer buffer) {
+        checkHeader(buffer, Integer.BYTES);
+        int length = buffer.getInt();
+        if (length < 0 || (long) length * Double.BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("Histórico de " + length + " gerações não cabe em "
+                    + buffer.remaining() + " bytes");
+        }
+        return length;
+    }
+
+    private static List<Chromosome> getBatch(ByteBuffer buffer, KnapsackInstance instance) {
+        checkHeader(buffer, 2 * Integer.BYTES);
+        int count = buffer.getInt();
+        int size = buffer.getInt();
+        if (count > 0 && size != instance.size()) {
+            throw new IllegalArgumentException("Migrantes com " + size
+                    + " genes para uma instância de " + instance.size() + " itens");
+        }
+        checkBatch(buffer, count, count > 0 ? size : 0);
+
+        List<Chromosome> migrants = new ArrayList<>(count);
+        for (int m = 0; m < count; m++) {
+            buffer.getDouble();
+            Chromosome migrant = new Chromosome(instance);
+            long[] words = migrant.getGenome().words();
+            for (int w = 0; w < words.length; w++) {
+                words[w] = buffer.getLong();
+            }
+            migrant.calculateFitness();
+            migrants.add(migrant);
+        }
+        return migrants;
+    }
+}
@@ -0,0 +1,31 @@
+package org.knapsack;
+
+import java.util.random.RandomGenerator;
+
+// Sorteia diretamente a distância até o próximo gene mutado (distribuição geométrica),
+// gastando um número aleatório por mutação em vez de um por gene.
+final class MutationSampler
+{
+    private final double rate;
+    private final double logComplement;
+
+    MutationSampler(double rate) {
+        this.rate = rate;
+        this.logComplement = Math.log1p(-rate);
+    }
+
+    // Próximo índice mutado depois de 'after', ou -1 se passar do fim do genoma.
+    int next(int after, int size, RandomGenerator random) {
+        long index = (long) after + 1 + nextGap(random);
+        return index < size ? (int) index : -1;
+    }
+
+    private long nextGap(RandomGenerator random) {
+        if (rate <= 0) return Integer.MAX_VALUE;
+        if (rate >= 1) return 0;
+
+        double u = 1.0 - random.nextDouble();
+        double gap = Math.floor(Math.log(u) / logComplement);
+        return gap < Integer.MAX_VALUE ? (long) gap : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,300 @@
+package org.knapsack;
+
+import java.lang.foreign.Arena;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Motor para populações maiores que o heap: como o BufferedGA, alterna duas populações
+// pré-alocadas, mas elas ficam em segmentos de memória nativa (OffHeapPopulation).
+// Não há somas por palavra; o filho de um crossover é avaliado a partir do pai cujo
+// trecho trocado é menor, e a mutação atualiza os totais em O(1) por gene.
+// A Arena de cada execução é fechada ao fim de run(), liberando a memória na hora.
+// Selecionado com GA.setEngine(GA.Engine.OFF_HEAP) (ou Config.MOTOR).
+public class OffHeapGA
+{
+    private final int populationSize;
+    private final double crossoverRate;
+    private final int elitismCount;
+    private final int maxGenerations;
+    private final double convergenceThreshold;
+    private final MutationSampler mutationSampler;
+    private final EliteSelector eliteSelector;
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    private RandomGenerator random;
+
+    private KnapsackInstance instance;
+    private OffHeapPopulation current;
+    private OffHeapPopulation next;
+    private double[] fitnessScratch;
+    private int[] eliteIndices;
+    private double[] recentBest;
+    private LocusCounter locusCounter;
+    private int diversityInterval = 1;
+    private double lastDiversity;
+    private int convergenceGeneration;
+    private double targetFitness = Double.POSITIVE_INFINITY;
+    private double targetGap;
+    private double upperBound;
+
+    // Última geração publicada. Fica em campos para que, sem listeners, nenhum
+    // GenerationStats seja criado por geração; getLastStats() o monta quando pedido.
+    private int lastGeneration = -1;
+    private double lastBest;
+    private double lastAverage;
+    private double lastWorst;
+    private long lastEvaluations;
+    private long lastTotalEvaluations;
+    private long lastStatisticsNanos;
+    private long lastDiversityNanos;
+    private long lastBreedingNanos;
+
+    public OffHeapGA(int populationSize, double crossoverRate, double mutationRate,
+                     int elitismCount, int maxGenerations, double convergenceThreshold) {
+        this.populationSize = populationSize;
+        this.crossoverRate = crossoverRate;
+        this.elitismCount = Math.min(elitismCount, populationSize);
+        this.maxGenerations = maxGenerations;
+        this.convergenceThreshold = convergenceThreshold;
+        this.mutationSampler = new MutationSampler(mutationRate);
+        this.eliteSelector = new EliteSelector(this.elitismCount);
+        this.random = GA.RANDOM_FACTORY.create();
+    }
+
+    public void setSeed(long seed) {
+        this.random = GA.RANDOM_FACTORY.create(seed);
+    }
+
+    // Calcula a diversidade só a cada 'generations' gerações; nas demais repete o último valor.
+    public void setDiversityInterval(int generations) {
+        this.diversityInterval = Math.max(1, generations);
+    }
+
+    // Mesma parada do GA: encerra quando o melhor fica a até 'gap' (relativo) do limite
+    // superior, o menor entre o limite da relaxação linear e o valor alvo.
+    public void setTargetFitness(double fitness) {
+        this.targetFitness = fitness > 0 ? fitness : Double.POSITIVE_INFINITY;
+    }
+
+    public void setTargetGap(double gap) {
+        this.targetGap = Math.max(0, gap);
+    }
+
+    public void addListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+
+    public Chromosome run(KnapsackInstance instance)
+    {
+        this.instance = instance;
+        this.fitnessScratch = new double[populationSize];
+        this.eliteIndices = new int[elitismCount];
+        this.recentBest = new double[11];
+        this.locusCounter = new LocusCounter(instance.size());
+        this.convergenceGeneration = -1;
+        this.upperBound = Math.min(instance.lpBound(), targetFitness);
+        this.lastGeneration = -1;
+
+        try (Arena arena = Arena.ofConfined()) {
+            current = new OffHeapPopulation(arena, populationSize, instance.size());
+            next = new OffHeapPopulation(arena, populationSize, instance.size());
+            long evaluations = populationSize;
+            long generationEvaluations = populationSize;
+
+            initializePopulation();
+
+            for (int generation = 0; generation < maxGenerations; generation++) {
+                long start = System.nanoTime();
+                current.copyFitness(fitnessScratch);
+                double best = Double.NEGATIVE_INFINITY;
+                double worst = Double.POSITIVE_INFINITY;
+                double total = 0;
+                for (double f : fitnessScratch) {
+                    best = Math.max(best, f);
+                    worst = Math.min(worst, f);
+                    total += f;
+                }
+                recentBest[generation % recentBest.length] = best;
+                long scanned = System.nanoTime();
+                if (generation % diversityInterval == 0) {
+                    lastDiversity = calculateDiversity();
+                }
+                long measured = System.nanoTime();
+
+                boolean converged = reachedBound(best) || checkConvergence(generation);
+                if (!converged) {
+                    breed();
+                    generationEvaluations += populationSize - elitismCount;
+                    evaluations += populationSize - elitismCount;
+                }
+
+                publish(generation, best, total / populationSize, worst, generationEvaluations,
+                        evaluations, scanned - start, measured - scanned,
+                        converged ? 0 : System.nanoTime() - measured);
+                generationEvaluations = 0;
+
+                if (converged) {
+                    convergenceGeneration = generation;
+                    break;
+                }
+                OffHeapPopulation swap = current;
+                current = next;
+                next = swap;
+            }
+
+            return getBestChromosome();
+        } finally {
+            current = null;
+            next = null;
+        }
+    }
+
+    private void initializePopulation() {
+        for (int i = 0; i < populationSize; i++) {
+            current.randomize(i, random);
+            current.setTotals(i, current.sum(i, 0, instance.size(), instance.values()),
+                    current.sum(i, 0, instance.size(), instance.weights()),
+                    instance.getCapacity());
+        }
+    }
+
+    private void breed() {
+        int filled = eliteSelector.select(fitnessScratch, populationSize, eliteIndices);
+        for (int e = 0; e < filled; e++) {
+            current.copy(eliteIndices[e], next, e);
+        }
+
+        while (filled < populationSize) {
+            int parent1 = tournamentSelection(3);
+            int parent2 = tournamentSelection(3);
+            boolean cross = random.nextDouble() < crossoverRate;
+            int point = cross ? random.nextInt(instance.size()) : 0;
+
+            produceChild(parent1, parent2, cross, point, filled++);
+            if (filled < populationSize) {
+                produceChild(parent2, parent1, cross, point, filled++);
+            }
+        }
+    }
+
+    private void produceChild(int head, int tail, boolean cross, int point, int slot) {
+        if (cross) {
+            current.crossover(head, tail, point, next, slot);
+            double[] values = instance.values();
+            double[] weights = instance.weights();
+            int size = instance.size();
+            // Parte do pai cujo trecho trocado é menor e corrige só esse trecho.
+            double value;
+            double weight;
+            if (point < size - point) {
+                value = current.value(tail) - current.sum(tail, 0, point, values)
+                        + current.sum(head, 0, point, values);
+                weight = current.weight(tail) - current.sum(tail, 0, point, weights)
+                        + current.sum(head, 0, point, weights);
+            } else {
+                value = current.value(head) - current.sum(head, point, size, values)
+                        + current.sum(tail, point, size, values);
+                weight = current.weight(head) - current.sum(head, point, size, weights)
+                        + current.sum(tail, point, size, weights);
+            }
+            next.setTotals(slot, value, weight, instance.getCapacity());
+        } else {
+            current.copy(head, next, slot);
+        }
+        mutate(slot);
+    }
+
+    private void mutate(int slot) {
+        int size = instance.size();
+        int i = mutationSampler.next(-1, size, random);
+        if (i < 0) return;
+
+        double value = next.value(slot);
+        double weight = next.weight(slot);
+        for (; i >= 0; i = mutationSampler.next(i, size, random)) {
+            int sign = next.flip(slot, i);
+            value += sign * instance.getValue(i);
+            weight += sign * instance.getWeight(i);
+        }
+        next.setTotals(slot, value, weight, instance.getCapacity());
+    }
+
+    private int tournamentSelection(int tournamentSize) {
+        int best = -1;
+
+        for (int i = 0; i < tournamentSize; i++) {
+            int candidate = random.nextInt(populationSize);
+            if (best < 0 || fitnessScratch[candidate] > fitnessScratch[best]) {
+                best = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    private double calculateDiversity() {
+        locusCounter.reset();
+        for (int i = 0; i < populationSize; i++) {
+            locusCounter.add(current.genomes(), current.firstWord(i), current.wordCount());
+        }
+        return locusCounter.diversity();
+    }
+
+    private boolean checkConvergence(int generation) {
+        if (generation < 10) return false;
+
+        int window = recentBest.length;
+        double improvement = recentBest[generation % window] - recentBest[(generation - 10) % window];
+        return improvement < convergenceThreshold;
+    }
+
+    private void publish(int generation, double best, double average, double worst,
+                         long evaluations, long totalEvaluations, long statisticsNanos,
+                         long diversityNanos, long breedingNanos) {
+        lastGeneration = generation;
+        lastBest = best;
+        lastAverage = average;
+        lastWorst = worst;
+        lastEvaluations = evaluations;
+        lastTotalEvaluations = totalEvaluations;
+        lastStatisticsNanos = statisticsNanos;
+        lastDiversityNanos = diversityNanos;
+        lastBreedingNanos = breedingNanos;
+        if (listeners.isEmpty()) return;
+
+        GenerationStats stats = getLastStats();
+        for (int l = 0; l < listeners.size(); l++) {
+            listeners.get(l).onGeneration(stats);
+        }
+    }
+
+    public GenerationStats getLastStats() {
+        if (lastGeneration < 0) return null;
+        return new GenerationStats(lastGeneration, lastBest, lastAverage, lastWorst,
+                lastDiversity, lastEvaluations, lastTotalEvaluations, lastStatisticsNanos,
+                lastDiversityNanos, lastBreedingNanos);
+    }
+
+    private boolean reachedBound(double best) {
+        return GA.optimalityGap(best, upperBound) <= targetGap + 1e-9;
+    }
+
+    // Copia o melhor indivíduo para o heap, já que a população some com a Arena.
+    private Chromosome getBestChromosome() {
+        current.copyFitness(fitnessScratch);
+        int best = 0;
+        for (int i = 1; i < populationSize; i++) {
+            if (fitnessScratch[i] > fitnessScratch[best]) {
+                best = i;
+            }
+        }
+
+        Chromosome chromosome = new Chromosome(instance);
+        current.copyGenome(best, chromosome.getGenome().words());
+        chromosome.calculateFitness();
+        return chromosome;
+    }
+
+    public int getConvergenceGeneration() { return convergenceGeneration; }
+    public int getMaxGenerations() { return maxGenerations; }
+}
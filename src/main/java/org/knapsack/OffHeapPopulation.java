@@ -0,0 +1,125 @@
+package org.knapsack;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.random.RandomGenerator;
+
+// População guardada fora do heap: os genomas compactados ficam em um único segmento
+// (indivíduo i ocupa as palavras [i·words, (i+1)·words)) e fitness, valor e peso em
+// colunas de doubles. A memória pertence à Arena recebida e é liberada quando ela fecha.
+final class OffHeapPopulation
+{
+    private static final ValueLayout.OfLong WORD = ValueLayout.JAVA_LONG;
+    private static final ValueLayout.OfDouble COLUMN = ValueLayout.JAVA_DOUBLE;
+
+    private final MemorySegment genomes;
+    private final MemorySegment fitness;
+    private final MemorySegment values;
+    private final MemorySegment weights;
+    private final int size;
+    private final int genes;
+    private final int words;
+
+    OffHeapPopulation(Arena arena, int size, int genes) {
+        this.size = size;
+        this.genes = genes;
+        this.words = Genome.wordCount(genes);
+        this.genomes = arena.allocate((long) size * words * Long.BYTES, Long.BYTES);
+        this.fitness = arena.allocate((long) size * Double.BYTES, Double.BYTES);
+        this.values = arena.allocate((long) size * Double.BYTES, Double.BYTES);
+        this.weights = arena.allocate((long) size * Double.BYTES, Double.BYTES);
+    }
+
+    int size() { return size; }
+    int wordCount() { return words; }
+    MemorySegment genomes() { return genomes; }
+
+    long firstWord(int individual) {
+        return (long) individual * words;
+    }
+
+    long word(int individual, int w) {
+        return genomes.getAtIndex(WORD, firstWord(individual) + w);
+    }
+
+    double fitness(int individual) { return fitness.getAtIndex(COLUMN, individual); }
+    double value(int individual) { return values.getAtIndex(COLUMN, individual); }
+    double weight(int individual) { return weights.getAtIndex(COLUMN, individual); }
+
+    void setTotals(int individual, double value, double weight, double capacity) {
+        values.setAtIndex(COLUMN, individual, value);
+        weights.setAtIndex(COLUMN, individual, weight);
+        fitness.setAtIndex(COLUMN, individual, Chromosome.penalizedFitness(value, weight, capacity));
+    }
+
+    // Copia a coluna de fitness para 'target' (usado pelo EliteSelector).
+    void copyFitness(double[] target) {
+        MemorySegment.copy(fitness, COLUMN, 0, target, 0, size);
+    }
+
+    void randomize(int individual, RandomGenerator random) {
+        long first = firstWord(individual);
+        for (int w = 0; w < words; w++) {
+            genomes.setAtIndex(WORD, first + w, random.nextLong());
+        }
+        int tail = genes & 63;
+        if (tail != 0) {
+            long last = first + words - 1;
+            genomes.setAtIndex(WORD, last, genomes.getAtIndex(WORD, last) & ((1L << tail) - 1));
+        }
+    }
+
+    // Soma de 'column' sobre os genes ativos em [from, to) do indivíduo.
+    double sum(int individual, int from, int to, double[] column) {
+        if (from >= to) return 0;
+        long first = firstWord(individual);
+        int fromWord = from >>> 6;
+        int toWord = (to - 1) >>> 6;
+        double sum = 0;
+        for (int w = fromWord; w <= toWord; w++) {
+            long word = genomes.getAtIndex(WORD, first + w);
+            if (w == fromWord) word &= -1L << from;
+            if (w == toWord && (to & 63) != 0) word &= (1L << to) - 1;
+            sum += WordSums.sumBits(word, w, column);
+        }
+        return sum;
+    }
+
+    void copy(int from, OffHeapPopulation target, int to) {
+        MemorySegment.copy(genomes, firstWord(from) * Long.BYTES,
+                target.genomes, target.firstWord(to) * Long.BYTES, (long) words * Long.BYTES);
+        target.values.setAtIndex(COLUMN, to, value(from));
+        target.weights.setAtIndex(COLUMN, to, weight(from));
+        target.fitness.setAtIndex(COLUMN, to, fitness(from));
+    }
+
+    // Mesmo corte de Genome.crossover: [0, point) de 'head' e o resto de 'tail',
+    // copiando as palavras inteiras em bloco. Não atualiza as colunas.
+    void crossover(int head, int tail, int point, OffHeapPopulation target, int child) {
+        int splitWord = point >>> 6;
+        long childFirst = target.firstWord(child);
+        MemorySegment.copy(genomes, firstWord(head) * Long.BYTES,
+                target.genomes, childFirst * Long.BYTES, (long) splitWord * Long.BYTES);
+        if (splitWord < words) {
+            long lowMask = (1L << point) - 1;
+            long mixed = (word(head, splitWord) & lowMask) | (word(tail, splitWord) & ~lowMask);
+            target.genomes.setAtIndex(WORD, childFirst + splitWord, mixed);
+            MemorySegment.copy(genomes, (firstWord(tail) + splitWord + 1) * Long.BYTES,
+                    target.genomes, (childFirst + splitWord + 1) * Long.BYTES,
+                    (long) (words - splitWord - 1) * Long.BYTES);
+        }
+    }
+
+    // Inverte o gene e devolve +1 se ele ficou ativo ou -1 se foi desligado.
+    int flip(int individual, int gene) {
+        long index = firstWord(individual) + (gene >>> 6);
+        long word = genomes.getAtIndex(WORD, index) ^ (1L << gene);
+        genomes.setAtIndex(WORD, index, word);
+        return (word & (1L << gene)) != 0 ? 1 : -1;
+    }
+
+    void copyGenome(int individual, long[] target) {
+        MemorySegment.copy(genomes, WORD, firstWord(individual) * Long.BYTES, target, 0, words);
+    }
+}
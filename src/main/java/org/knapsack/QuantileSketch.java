@@ -0,0 +1,99 @@
+package org.knapsack;
+
+// Sketch de quantis com erro relativo limitado, no estilo do DDSketch: um valor x cai no
+// balde ceil(log_gamma |x|), com gamma = (1 + a) / (1 - a), e o quantil devolvido fica a no
+// máximo a = 2% do valor exato. Os baldes cobrem |x| em [1e-9, 1e12] em vetores de tamanho
+// fixo (valores fora disso contam no balde da ponta), então a memória não depende de
+// quantos valores entram, e dois sketches se juntam somando os baldes.
+final class QuantileSketch
+{
+    static final double RELATIVE_ACCURACY = 0.02;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_INDEXABLE = 1e-9;
+    private static final int MIN_INDEX = logIndex(MIN_INDEXABLE);
+    private static final int BUCKETS = logIndex(1e12) - MIN_INDEX + 1;
+
+    // Alocados no primeiro valor de cada sinal.
+    private long[] positive;
+    private long[] negative;
+    private long zeros;
+    private long count;
+
+    QuantileSketch() {}
+
+    QuantileSketch(QuantileSketch other) {
+        this.positive = other.positive != null ? other.positive.clone() : null;
+        this.negative = other.negative != null ? other.negative.clone() : null;
+        this.zeros = other.zeros;
+        this.count = other.count;
+    }
+
+    void add(double value) {
+        if (value >= MIN_INDEXABLE) {
+            if (positive == null) positive = new long[BUCKETS];
+            positive[bucket(value)]++;
+        } else if (value <= -MIN_INDEXABLE) {
+            if (negative == null) negative = new long[BUCKETS];
+            negative[bucket(-value)]++;
+        } else {
+            zeros++;
+        }
+        count++;
+    }
+
+    void merge(QuantileSketch other) {
+        positive = mergeBuckets(positive, other.positive);
+        negative = mergeBuckets(negative, other.negative);
+        zeros += other.zeros;
+        count += other.count;
+    }
+
+    // Quantil q em [0, 1]: valor representativo do balde com o elemento de posição
+    // floor(q·(n-1)) na ordem crescente; NaN se vazio.
+    double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        long rank = (long) (Math.min(1, Math.max(0, q)) * (count - 1));
+
+        long seen = 0;
+        if (negative != null) {
+            for (int b = BUCKETS - 1; b >= 0; b--) {
+                seen += negative[b];
+                if (seen > rank) return -value(b);
+            }
+        }
+        seen += zeros;
+        if (seen > rank) return 0;
+        if (positive != null) {
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += positive[b];
+                if (seen > rank) return value(b);
+            }
+        }
+        return value(BUCKETS - 1);
+    }
+
+    long count() { return count; }
+
+    private static int logIndex(double magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / LOG_GAMMA);
+    }
+
+    private static int bucket(double magnitude) {
+        return Math.min(BUCKETS - 1, Math.max(0, logIndex(magnitude) - MIN_INDEX));
+    }
+
+    // Ponto do balde (gamma^(i-1), gamma^i] com o mesmo erro relativo para as duas pontas.
+    private static double value(int bucket) {
+        return 2 * Math.pow(GAMMA, bucket + MIN_INDEX) / (GAMMA + 1);
+    }
+
+    private static long[] mergeBuckets(long[] target, long[] source) {
+        if (source == null) return target;
+        if (target == null) return source.clone();
+        for (int b = 0; b < BUCKETS; b++) {
+            target[b] += source[b];
+        }
+        return target;
+    }
+}
@@ -0,0 +1,129 @@
+package org.knapsack;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Cromossomo de chaves aleatórias: cada item tem uma prioridade em [0, 1) e o decodificador
+// coloca os itens na mochila em ordem decrescente de prioridade enquanto couberem.
+// O genoma herdado guarda o resultado da decodificação, então todo indivíduo é viável
+// e avaliação, hash e diversidade funcionam como na codificação binária.
+public class RandomKeyChromosome extends Chromosome
+{
+    private final float[] keys;
+
+    public RandomKeyChromosome(KnapsackInstance instance) {
+        super(instance);
+        this.keys = new float[instance.size()];
+    }
+
+    public RandomKeyChromosome(RandomKeyChromosome other) {
+        super(other);
+        this.keys = other.keys.clone();
+    }
+
+    // Converte um cromossomo binário (ex.: um migrante) dando prioridade maior aos itens
+    // selecionados; a decodificação mantém a seleção e completa o que ainda couber.
+    static RandomKeyChromosome of(Chromosome chromosome) {
+        if (chromosome instanceof RandomKeyChromosome keyed) return keyed;
+
+        RandomKeyChromosome keyed = new RandomKeyChromosome(chromosome.getInstance());
+        Genome genes = chromosome.getGenome();
+        for (int i = 0; i < keyed.keys.length; i++) {
+            keyed.keys[i] = genes.get(i) ? 0.75f : 0.25f;
+        }
+        keyed.decode();
+        return keyed;
+    }
+
+    // Recria um indivíduo a partir das chaves (ex.: lidas de um checkpoint).
+    static RandomKeyChromosome withKeys(KnapsackInstance instance, float[] keys) {
+        RandomKeyChromosome keyed = new RandomKeyChromosome(instance);
+        System.arraycopy(keys, 0, keyed.keys, 0, keyed.keys.length);
+        keyed.decode();
+        return keyed;
+    }
+
+    @Override
+    public Chromosome copy() {
+        return new RandomKeyChromosome(this);
+    }
+
+    @Override
+    public void initialize(RandomGenerator random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextFloat();
+        }
+        decode();
+    }
+
+    // Mesmo corte do crossover binário, aplicado às chaves: [0, point) de head, resto de tail.
+    @Override
+    public void crossover(Chromosome head, Chromosome tail, int point) {
+        System.arraycopy(of(head).keys, 0, keys, 0, point);
+        System.arraycopy(of(tail).keys, point, keys, point, keys.length - point);
+        decode();
+    }
+
+    // O decodificador já avalia o filho; não há avaliação a adiar.
+    @Override
+    void crossoverGenes(Chromosome head, Chromosome tail, int point) {
+        crossover(head, tail, point);
+    }
+
+    // Inverte a prioridade do item (k → 1 - k) e decodifica de novo.
+    @Override
+    public void flip(int index) {
+        keys[index] = Math.nextDown(1f - keys[index]);
+        decode();
+    }
+
+    // Inverte o gene no genoma (avaliação e hash incrementais) e leva a chave do item ao
+    // extremo correspondente, sem decodificar: o genoma só volta a ser o resultado da
+    // decodificação depois de decode(). Serve para testar vários vizinhos pelo hash
+    // pagando uma única ordenação no fim.
+    void flipGene(int index) {
+        keys[index] = getGenome().get(index) ? 0f : Math.nextDown(1f);
+        super.flip(index);
+    }
+
+    // Sorteia novas chaves nas posições escolhidas pelo amostrador e decodifica uma vez.
+    void mutate(MutationSampler sampler, RandomGenerator random) {
+        int size = keys.length;
+        int i = sampler.next(-1, size, random);
+        if (i < 0) return;
+        for (; i >= 0; i = sampler.next(i, size, random)) {
+            keys[i] = random.nextFloat();
+        }
+        decode();
+    }
+
+    void decode() {
+        KnapsackInstance instance = getInstance();
+        int n = keys.length;
+
+        // Chave e índice em um long: para floats não negativos a ordem dos bits é a
+        // ordem numérica, então uma ordenação primitiva dá a ordem de prioridade.
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = ((long) Float.floatToIntBits(keys[i]) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        long[] words = getGenome().words();
+        Arrays.fill(words, 0);
+        double remaining = instance.getCapacity();
+        for (int k = n - 1; k >= 0; k--) {
+            int index = (int) order[k];
+            double weight = instance.getWeight(index);
+            if (instance.getValue(index) > 0 && weight <= remaining) {
+                words[index >>> 6] |= 1L << index;
+                remaining -= weight;
+            }
+        }
+
+        genesChanged();
+        calculateFitness();
+    }
+
+    public float getKey(int index) { return keys[index]; }
+}
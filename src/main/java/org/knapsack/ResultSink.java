@@ -0,0 +1,19 @@
+package org.knapsack;
+
+import java.io.IOException;
+
+// Destino dos resultados de Experiment.streamRuns, gravados assim que cada execução
+// termina. É chamado em paralelo pelas threads das execuções, então as implementações
+// serializam a escrita. 'label' identifica a variante (ex.: a capacidade testada) e
+// 'seed' a execução; os históricos vêm vazios quando includesHistory() é false.
+public interface ResultSink extends AutoCloseable
+{
+    boolean includesHistory();
+
+    void accept(String label, long seed, Experiment.ExperimentResult result,
+                double[] best, double[] average, double[] worst, double[] diversity)
+            throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
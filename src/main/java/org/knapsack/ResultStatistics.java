@@ -0,0 +1,107 @@
+package org.knapsack;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Resumo de um conjunto de execuções acumulado conforme elas terminam, sem guardar os
+// resultados: como ResultSink, recebe direto de Experiment.streamRuns (ignorando os
+// históricos). Pode ser alimentado por várias threads e combinado com merge().
+public class ResultStatistics implements ResultSink
+{
+    private final StreamingStatistics bestFitness = new StreamingStatistics();
+    private final StreamingStatistics worstFitness = new StreamingStatistics();
+    private final StreamingStatistics executionTimeMs = new StreamingStatistics();
+    private final StreamingStatistics convergenceGeneration = new StreamingStatistics();
+    private final StreamingStatistics optimalityGap = new StreamingStatistics();
+    private final StreamingStatistics generationsToOptimum = new StreamingStatistics();
+    private final StreamingStatistics timeToOptimumMs = new StreamingStatistics();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder optimalRuns = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder cpuTimedRuns = new LongAdder();
+
+    public void add(Experiment.ExperimentResult result) {
+        bestFitness.add(result.bestFitness);
+        worstFitness.add(result.worstFitness);
+        executionTimeMs.add(result.executionTimeMs);
+        convergenceGeneration.add(result.convergenceGeneration);
+        optimalityGap.add(result.optimalityGap);
+        if (result.generationsToOptimum >= 0) {
+            generationsToOptimum.add(result.generationsToOptimum);
+            timeToOptimumMs.add(result.timeToOptimumMs);
+        }
+        if (result.foundOptimal) {
+            optimalRuns.increment();
+        }
+        cacheHits.add(result.cacheHits);
+        cacheMisses.add(result.cacheMisses);
+        if (result.cpuTime) {
+            cpuTimedRuns.increment();
+        }
+        runs.increment();
+    }
+
+    public void merge(ResultStatistics other) {
+        bestFitness.merge(other.bestFitness);
+        worstFitness.merge(other.worstFitness);
+        executionTimeMs.merge(other.executionTimeMs);
+        convergenceGeneration.merge(other.convergenceGeneration);
+        optimalityGap.merge(other.optimalityGap);
+        generationsToOptimum.merge(other.generationsToOptimum);
+        timeToOptimumMs.merge(other.timeToOptimumMs);
+        runs.add(other.runs.sum());
+        optimalRuns.add(other.optimalRuns.sum());
+        cacheHits.add(other.cacheHits.sum());
+        cacheMisses.add(other.cacheMisses.sum());
+        cpuTimedRuns.add(other.cpuTimedRuns.sum());
+    }
+
+    @Override
+    public boolean includesHistory() {
+        return false;
+    }
+
+    @Override
+    public void accept(String label, long seed, Experiment.ExperimentResult result,
+                       double[] best, double[] average, double[] worst, double[] diversity) {
+        add(result);
+    }
+
+    @Override
+    public void close() {}
+
+    // Resultado médio usado pelos gráficos: 'averageFitness' leva a taxa de sucesso (%)
+    // e 'foundOptimal' indica se a maioria das execuções chegou ao ótimo.
+    public Experiment.ExperimentResult toSummaryResult() {
+        long total = runs.sum();
+        long successes = optimalRuns.sum();
+        return new Experiment.ExperimentResult(
+                orZero(bestFitness.mean()),
+                total > 0 ? successes * 100.0 / total : 0,
+                orZero(worstFitness.mean()),
+                orZero(executionTimeMs.mean()),
+                (int) orZero(convergenceGeneration.mean()),
+                successes > total / 2
+        );
+    }
+
+    private static double orZero(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+    public long runs() { return runs.sum(); }
+    public long optimalRuns() { return optimalRuns.sum(); }
+    public long cacheHits() { return cacheHits.sum(); }
+    public long cacheMisses() { return cacheMisses.sum(); }
+    // Execuções cujo tempo é de CPU; as demais foram medidas no relógio.
+    public long cpuTimedRuns() { return cpuTimedRuns.sum(); }
+    public StreamingStatistics bestFitness() { return bestFitness; }
+    public StreamingStatistics worstFitness() { return worstFitness; }
+    public StreamingStatistics executionTimeMs() { return executionTimeMs; }
+    public StreamingStatistics convergenceGeneration() { return convergenceGeneration; }
+    public StreamingStatistics optimalityGap() { return optimalityGap; }
+
+    // Só das execuções que atingiram o ótimo.
+    public StreamingStatistics generationsToOptimum() { return generationsToOptimum; }
+    public StreamingStatistics timeToOptimumMs() { return timeToOptimumMs; }
+}
@@ -0,0 +1,118 @@
+package org.knapsack;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+// Executa execuções independentes em paralelo e devolve os resultados na ordem dos índices.
+public final class RunScheduler
+{
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int parallelism;
+    private final boolean virtualThreads;
+
+    public RunScheduler(int parallelism, boolean virtualThreads) {
+        this.parallelism = Math.max(1, parallelism);
+        this.virtualThreads = virtualThreads;
+    }
+
+    public static RunScheduler fromConfig() {
+        return new RunScheduler(Config.PARALELISMO_EXECUCOES, Config.THREADS_VIRTUAIS);
+    }
+
+    public <T> List<T> runAll(int count, IntFunction<T> task) {
+        if (parallelism == 1) {
+            List<T> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(task.apply(i));
+            }
+            return results;
+        }
+
+        Semaphore permits = new Semaphore(parallelism);
+        try (ExecutorService executor = newExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.apply(index);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<T> results = new ArrayList<>(count);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execuções interrompidas", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma das execuções", e.getCause());
+        }
+    }
+
+    // Como runAll, mas sem guardar resultados nem Futures: cada tarefa entrega o que produz
+    // (ex.: a um ResultSink). Uma nova tarefa só é criada quando há vaga, então a memória
+    // não cresce com 'count'. A primeira falha interrompe o envio das restantes.
+    public void runEach(int count, IntConsumer task) {
+        if (parallelism == 1) {
+            for (int i = 0; i < count; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (ExecutorService executor = newExecutor()) {
+            for (int i = 0; i < count && failure.get() == null; i++) {
+                permits.acquire();
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        task.accept(index);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Execuções interrompidas", e);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Falha em uma das execuções", failure.get());
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        if (virtualThreads) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(parallelism);
+    }
+
+    // Tempo de CPU da thread atual, ou -1 quando a JVM não o mede (ex.: threads virtuais).
+    public static long currentThreadCpuNanos() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) return -1;
+        return THREADS.getCurrentThreadCpuTime();
+    }
+}
@@ -0,0 +1,101 @@
+package org.knapsack;
+
+// Estatísticas de uma métrica em uma única passada e com memória fixa: média e variância
+// pelo método de Welford, mínimo, máximo e quantis aproximados (QuantileSketch).
+// add() pode ser chamado por várias threads; acumuladores separados (ex.: um por thread)
+// se juntam com merge(). Valores NaN são ignorados.
+public class StreamingStatistics
+{
+    private final QuantileSketch sketch;
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public StreamingStatistics() {
+        this.sketch = new QuantileSketch();
+    }
+
+    private StreamingStatistics(StreamingStatistics other) {
+        this.sketch = new QuantileSketch(other.sketch);
+        this.count = other.count;
+        this.mean = other.mean;
+        this.m2 = other.m2;
+        this.min = other.min;
+        this.max = other.max;
+    }
+
+    public static StreamingStatistics of(double... values) {
+        StreamingStatistics statistics = new StreamingStatistics();
+        for (double value : values) {
+            statistics.add(value);
+        }
+        return statistics;
+    }
+
+    public synchronized void add(double value) {
+        if (Double.isNaN(value)) return;
+
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    // Junta os dois grupos pela fórmula de Chan et al. para média e soma dos quadrados.
+    // 'other' é copiado antes, para nunca segurar as duas travas ao mesmo tempo.
+    public void merge(StreamingStatistics other) {
+        StreamingStatistics source = other.snapshot();
+        if (source.count == 0) return;
+
+        synchronized (this) {
+            long total = count + source.count;
+            double delta = source.mean - mean;
+            mean += delta * source.count / total;
+            m2 += source.m2 + delta * delta * ((double) count * source.count / total);
+            count = total;
+            min = Math.min(min, source.min);
+            max = Math.max(max, source.max);
+            sketch.merge(source.sketch);
+        }
+    }
+
+    public synchronized StreamingStatistics snapshot() {
+        return new StreamingStatistics(this);
+    }
+
+    public synchronized long count() { return count; }
+    public synchronized double mean() { return count > 0 ? mean : Double.NaN; }
+    public synchronized double min() { return count > 0 ? min : Double.NaN; }
+    public synchronized double max() { return count > 0 ? max : Double.NaN; }
+
+    // Variância populacional (divide por n), como o resumo estatístico sempre usou.
+    public synchronized double variance() {
+        return count > 0 ? m2 / count : Double.NaN;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public synchronized double confidenceInterval95() {
+        return count > 0 ? 1.96 * Math.sqrt(m2 / count) / Math.sqrt(count) : Double.NaN;
+    }
+
+    // Quantil aproximado (erro relativo de até QuantileSketch.RELATIVE_ACCURACY), limitado
+    // ao mínimo e ao máximo exatos, que são devolvidos para q = 0 e q = 1.
+    public synchronized double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        if (q <= 0) return min;
+        if (q >= 1) return max;
+        return Math.min(max, Math.max(min, sketch.quantile(q)));
+    }
+
+    public double p50() { return quantile(0.50); }
+    public double p95() { return quantile(0.95); }
+    public double p99() { return quantile(0.99); }
+}
@@ -0,0 +1,41 @@
+package org.knapsack;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Soma por palavra com a Vector API: os bits de cada palavra viram máscaras de lanes e
+// só os itens selecionados são acumulados, sem desvios por gene.
+final class VectorBatchEvaluator implements BatchEvaluator
+{
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    int lanes() { return LANES; }
+
+    @Override
+    public double fill(long[] words, double[] column, double[] wordSums) {
+        int fullWords = Math.min(words.length, column.length >>> 6);
+        double total = 0;
+
+        for (int w = 0; w < fullWords; w++) {
+            long word = words[w];
+            int base = w << 6;
+            DoubleVector sum = DoubleVector.zero(SPECIES);
+            for (int lane = 0; lane < Long.SIZE; lane += LANES) {
+                VectorMask<Double> mask = VectorMask.fromLong(SPECIES, word >>> lane);
+                sum = sum.add(DoubleVector.fromArray(SPECIES, column, base + lane), mask);
+            }
+            wordSums[w] = sum.reduceLanes(VectorOperators.ADD);
+            total += wordSums[w];
+        }
+
+        // Última palavra incompleta: poucos genes, soma escalar.
+        for (int w = fullWords; w < words.length; w++) {
+            wordSums[w] = WordSums.sumBits(words[w], w, column);
+            total += wordSums[w];
+        }
+        return total;
+    }
+}
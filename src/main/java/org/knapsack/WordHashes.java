@@ -0,0 +1,47 @@
+package org.knapsack;
+
+// Hash de Zobrist por palavra de 64 genes: XOR das chaves dos genes ligados. Segue o
+// mesmo esquema de WordSums, então um filho de crossover herda o hash das palavras
+// inteiras dos pais e só a palavra do corte é recalculada.
+final class WordHashes
+{
+    private WordHashes() {}
+
+    static long xorBits(long word, int wordIndex, long[] keys) {
+        int base = wordIndex << 6;
+        long hash = 0;
+        while (word != 0) {
+            hash ^= keys[base + Long.numberOfTrailingZeros(word)];
+            word &= word - 1;
+        }
+        return hash;
+    }
+
+    static long fill(long[] words, long[] keys, long[] hashes) {
+        long total = 0;
+        for (int w = 0; w < words.length; w++) {
+            hashes[w] = xorBits(words[w], w, keys);
+            total ^= hashes[w];
+        }
+        return total;
+    }
+
+    // Mesmo corte de Genome.crossover: [0, point) vem de head e o resto de tail.
+    static long crossover(long[] head, long[] tail, int point, long[] childWords,
+                          long[] keys, long[] child) {
+        int splitWord = point >>> 6;
+        int length = child.length;
+
+        System.arraycopy(head, 0, child, 0, Math.min(splitWord, length));
+        if (splitWord < length) {
+            child[splitWord] = xorBits(childWords[splitWord], splitWord, keys);
+            System.arraycopy(tail, splitWord + 1, child, splitWord + 1, length - splitWord - 1);
+        }
+
+        long total = 0;
+        for (long hash : child) {
+            total ^= hash;
+        }
+        return total;
+    }
+}
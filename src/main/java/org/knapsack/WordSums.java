@@ -0,0 +1,46 @@
+package org.knapsack;
+
+// Somas parciais de uma coluna (valor ou peso) por palavra de 64 genes.
+// Permitem avaliar um filho de crossover em O(n/64) e uma mutação em O(1) por gene.
+final class WordSums
+{
+    private WordSums() {}
+
+    static double sumBits(long word, int wordIndex, double[] column) {
+        int base = wordIndex << 6;
+        double sum = 0;
+        while (word != 0) {
+            sum += column[base + Long.numberOfTrailingZeros(word)];
+            word &= word - 1;
+        }
+        return sum;
+    }
+
+    static double fill(long[] words, double[] column, double[] sums) {
+        double total = 0;
+        for (int w = 0; w < words.length; w++) {
+            sums[w] = sumBits(words[w], w, column);
+            total += sums[w];
+        }
+        return total;
+    }
+
+    // Mesmo corte de Genome.crossover: [0, point) vem de head e o resto de tail.
+    static double crossover(double[] head, double[] tail, int point, long[] childWords,
+                            double[] column, double[] child) {
+        int splitWord = point >>> 6;
+        int length = child.length;
+
+        System.arraycopy(head, 0, child, 0, Math.min(splitWord, length));
+        if (splitWord < length) {
+            child[splitWord] = sumBits(childWords[splitWord], splitWord, column);
+            System.arraycopy(tail, splitWord + 1, child, splitWord + 1, length - splitWord - 1);
+        }
+
+        double total = 0;
+        for (double sum : child) {
+            total += sum;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,87 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class BatchEvaluatorTest
+{
+    // As lanes somam em outra ordem que o laço escalar: só valores inteiros dão somas exatas.
+    private static final double TOLERANCE = 1e-12;
+
+    @Test
+    void vectorEvaluatorMatchesTheScalarOne() {
+        BatchEvaluator scalar = BatchEvaluators.scalar();
+        BatchEvaluator vector = new VectorBatchEvaluator();
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        for (int size : new int[]{1, 63, 64, 65, 130, 1000}) {
+            for (boolean integral : new boolean[]{false, true}) {
+                KnapsackInstance instance = TestInstances.random(random, size, integral);
+                for (long[] words : genomes(random, size)) {
+                    for (double[] column : new double[][]{instance.values(), instance.weights()}) {
+                        double[] expected = new double[words.length];
+                        double[] actual = new double[words.length];
+                        double total = scalar.fill(words, column, expected);
+                        double vectorTotal = vector.fill(words, column, actual);
+
+                        if (integral && column == instance.weights()) {
+                            assertArrayEquals(expected, actual);
+                            assertEquals(total, vectorTotal);
+                        } else {
+                            for (int w = 0; w < words.length; w++) {
+                                assertEquals(expected[w], actual[w],
+                                        Math.abs(expected[w]) * TOLERANCE, "palavra " + w);
+                            }
+                            assertEquals(total, vectorTotal, Math.abs(total) * TOLERANCE);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void populationEvaluationMatchesChromosomeFitness() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(2);
+        KnapsackInstance instance = TestInstances.random(300, 3);
+        int count = 12;
+        int words = Genome.wordCount(instance.size());
+        long[][] genomes = new long[count][];
+        Chromosome[] chromosomes = new Chromosome[count];
+        for (int g = 0; g < count; g++) {
+            chromosomes[g] = TestInstances.randomChromosome(instance, random);
+            genomes[g] = chromosomes[g].getGenome().words();
+        }
+
+        double[][] valueSums = new double[count][words];
+        double[][] weightSums = new double[count][words];
+        double[] totalValues = new double[count];
+        double[] totalWeights = new double[count];
+        new VectorBatchEvaluator().evaluate(instance, genomes, 0, count, valueSums, weightSums,
+                totalValues, totalWeights);
+
+        for (int g = 0; g < count; g++) {
+            Chromosome full = new Chromosome(chromosomes[g].getGenome(), instance);
+            full.calculateFitness();
+            assertEquals(full.getTotalValue(), totalValues[g], full.getTotalValue() * TOLERANCE);
+            assertEquals(full.getTotalWeight(), totalWeights[g], full.getTotalWeight() * TOLERANCE);
+        }
+    }
+
+    // Genomas vazio, cheio e aleatórios, sempre sem bits além do último gene.
+    private static long[][] genomes(RandomGenerator random, int size) {
+        int words = Genome.wordCount(size);
+        long[][] genomes = new long[6][words];
+        for (int g = 0; g < genomes.length; g++) {
+            for (int w = 0; w < words; w++) {
+                genomes[g][w] = g == 0 ? 0 : g == 1 ? -1L : random.nextLong();
+            }
+            if ((size & 63) != 0) {
+                genomes[g][words - 1] &= -1L >>> (64 - (size & 63));
+            }
+        }
+        return genomes;
+    }
+}
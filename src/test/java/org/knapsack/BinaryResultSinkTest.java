@@ -0,0 +1,148 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BinaryResultSinkTest
+{
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsRoundTripWithHistories() throws IOException {
+        Path path = dir.resolve("resultados.bin");
+        try (BinaryResultSink sink = new BinaryResultSink(path, true)) {
+            for (int run = 0; run < 3; run++) {
+                write(sink, run);
+            }
+        }
+
+        Collector collector = new Collector();
+        assertEquals(3, BinaryResultSink.read(path, collector));
+        for (int run = 0; run < 3; run++) {
+            assertEquals("c" + run, collector.labels.get(run));
+            assertEquals(100 + run, collector.seeds.get(run));
+            assertEquals(run + 0.5, collector.results.get(run).bestFitness);
+            assertEquals(run % 2 == 0, collector.results.get(run).cpuTime);
+            assertArrayEquals(history(run), collector.best.get(run));
+        }
+    }
+
+    // Sem close(), como numa queda: os registros já aceitos estão no arquivo.
+    @Test
+    void everyAcceptedRecordReachesTheFileBeforeClose() throws IOException {
+        Path path = dir.resolve("resultados.bin");
+        BinaryResultSink sink = new BinaryResultSink(path, true);
+        try {
+            for (int run = 0; run < 3; run++) {
+                write(sink, run);
+                Collector collector = new Collector();
+                assertEquals(run + 1, BinaryResultSink.read(path, collector));
+                assertArrayEquals(history(run), collector.best.get(run));
+            }
+        } finally {
+            sink.close();
+        }
+    }
+
+    @Test
+    void reopeningCutsATruncatedLastRecordAndAppendsAfterIt() throws IOException {
+        Path path = dir.resolve("resultados.bin");
+        try (BinaryResultSink sink = new BinaryResultSink(path, true)) {
+            write(sink, 0);
+            write(sink, 1);
+        }
+        // Queda no meio da gravação do segundo registro.
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 20);
+        }
+        assertThrows(IOException.class, () -> BinaryResultSink.read(path, null));
+
+        try (BinaryResultSink sink = new BinaryResultSink(path, true)) {
+            write(sink, 2);
+        }
+
+        Collector collector = new Collector();
+        assertEquals(2, BinaryResultSink.read(path, collector));
+        assertEquals(List.of("c0", "c2"), collector.labels);
+        assertArrayEquals(history(2), collector.best.get(1));
+    }
+
+    @Test
+    void reopeningATruncatedHeaderStartsANewFile() throws IOException {
+        Path path = dir.resolve("resultados.bin");
+        Files.write(path, new byte[]{0x4B, 0x52, 0x45});
+
+        try (BinaryResultSink sink = new BinaryResultSink(path, false)) {
+            write(sink, 0);
+        }
+
+        Collector collector = new Collector();
+        assertEquals(1, BinaryResultSink.read(path, collector));
+        assertEquals(0, collector.best.get(0).length);
+    }
+
+    @Test
+    void reopeningRejectsAFileThatIsNotAResultFile() throws IOException {
+        Path path = dir.resolve("outro.bin");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> new BinaryResultSink(path, true));
+        assertEquals(64, Files.size(path));
+    }
+
+    private static void write(BinaryResultSink sink, int run) throws IOException {
+        Experiment.ExperimentResult result = new Experiment.ExperimentResult(
+                run + 0.5, run, run - 0.5, 10 + run, run, false, run, 2 * run, 0.01 * run,
+                -1, Double.NaN, run % 2 == 0);
+        double[] history = history(run);
+        sink.accept("c" + run, 100 + run, result, history, history, history, history);
+    }
+
+    private static double[] history(int run) {
+        double[] history = new double[5];
+        for (int g = 0; g < history.length; g++) {
+            history[g] = run * 10 + g;
+        }
+        return history;
+    }
+
+    private static final class Collector implements ResultSink
+    {
+        final List<String> labels = new ArrayList<>();
+        final List<Long> seeds = new ArrayList<>();
+        final List<Experiment.ExperimentResult> results = new ArrayList<>();
+        final List<double[]> best = new ArrayList<>();
+
+        @Override
+        public boolean includesHistory() {
+            return true;
+        }
+
+        @Override
+        public void accept(String label, long seed, Experiment.ExperimentResult result,
+                           double[] best, double[] average, double[] worst,
+                           double[] diversity) {
+            assertTrue(best.length == average.length && best.length == diversity.length);
+            labels.add(label);
+            seeds.add(seed);
+            results.add(result);
+            this.best.add(best);
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,135 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointTest
+{
+    private static final int GENERATIONS = 60;
+    private static final int INTERVAL = 5;
+    private static final int INTERRUPTED_AT = 33;
+    private static final int CACHE_ENTRIES = 1 << 10;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resumedBinaryRunEqualsUninterruptedRun() throws Exception {
+        assertResumeMatches(GA.Encoding.BINARY, false);
+    }
+
+    @Test
+    void resumedRandomKeyRunWithCacheEqualsUninterruptedRun() throws Exception {
+        assertResumeMatches(GA.Encoding.RANDOM_KEY, true);
+    }
+
+    // Os pais avaliados pelo cache refazem as somas por palavra no crossover enquanto o
+    // checkpoint é gravado, e os acertos dependem do cache gravado junto.
+    @Test
+    void resumedBinaryRunWithCacheEqualsUninterruptedRun() throws Exception {
+        assertResumeMatches(GA.Encoding.BINARY, true);
+    }
+
+    @Test
+    void corruptCountsAndTruncationAreRejectedAsInvalid() throws Exception {
+        KnapsackInstance instance = TestInstances.random(1000, 7);
+        Path path = dir.resolve("valido.ckpt");
+        GA ga = newGA(GA.Encoding.BINARY, true);
+        ga.setCheckpoint(path, INTERVAL);
+        ga.run(instance);
+        byte[] valid = Files.readAllBytes(path);
+        int generation = Checkpoint.read(path, instance, CACHE_ENTRIES).generation;
+        // Gravações ainda em curso descartam as seguintes: pode ter ficado só a da geração 0.
+        assertTrue(generation >= 0 && generation % INTERVAL == 0);
+
+        // Contagem da janela de convergência, logo depois do cabeçalho fixo.
+        int countOffset = 89;
+        for (int count : new int[]{-1, Integer.MIN_VALUE, Integer.MAX_VALUE, valid.length}) {
+            byte[] corrupt = valid.clone();
+            ByteBuffer.wrap(corrupt).putInt(countOffset, count);
+            Path bad = Files.write(dir.resolve("corrompido.ckpt"), corrupt);
+            assertThrows(IOException.class, () -> Checkpoint.read(bad, instance, CACHE_ENTRIES));
+        }
+
+        for (int length : new int[]{3, countOffset + 2, valid.length / 2, valid.length - 1}) {
+            Path cut = Files.write(dir.resolve("truncado.ckpt"), Arrays.copyOf(valid, length));
+            assertThrows(IOException.class, () -> Checkpoint.read(cut, instance, CACHE_ENTRIES));
+        }
+
+        // GA com outro tamanho de cache, ou sem cache, não retoma este checkpoint.
+        assertThrows(IOException.class, () -> Checkpoint.read(path, instance, 512));
+        assertThrows(IOException.class, () -> Checkpoint.read(path, instance, 0));
+    }
+
+    @Test
+    void failedWritesAreSkippedAndTheRunContinues() {
+        KnapsackInstance instance = TestInstances.random(1000, 7);
+        GA ga = newGA(GA.Encoding.BINARY, false);
+        ga.setCheckpoint(dir.resolve("inexistente").resolve("run.ckpt"), INTERVAL);
+
+        Chromosome best = ga.run(instance);
+
+        assertEquals(GENERATIONS, ga.getBestFitnessHistory().length);
+        assertEquals(0, ga.getCheckpointsWritten());
+        assertTrue(ga.getCheckpointsSkipped() > 0);
+        assertTrue(best.getFitness() > 0);
+    }
+
+    private void assertResumeMatches(GA.Encoding encoding, boolean cache) throws Exception {
+        KnapsackInstance instance = TestInstances.random(1000, 7);
+
+        GA uninterrupted = newGA(encoding, cache);
+        uninterrupted.setCheckpoint(dir.resolve("completa.ckpt"), INTERVAL);
+        Chromosome expected = uninterrupted.run(instance);
+
+        // Execução "derrubada" no meio: o último checkpoint gravado fica no arquivo.
+        Path path = dir.resolve("interrompida.ckpt");
+        GA interrupted = newGA(encoding, cache);
+        interrupted.setCheckpoint(path, INTERVAL);
+        interrupted.prepare(instance);
+        try {
+            for (int generation = 0; generation < INTERRUPTED_AT; generation++) {
+                interrupted.step(generation);
+            }
+        } finally {
+            interrupted.finish();
+        }
+        assertTrue(Files.exists(path));
+
+        GA resumed = newGA(encoding, cache);
+        resumed.setCheckpoint(dir.resolve("retomada.ckpt"), INTERVAL);
+        Chromosome actual = resumed.resume(path, instance);
+
+        assertArrayEquals(uninterrupted.getBestFitnessHistory(), resumed.getBestFitnessHistory());
+        assertArrayEquals(uninterrupted.getAverageFitnessHistory(), resumed.getAverageFitnessHistory());
+        assertArrayEquals(uninterrupted.getWorstFitnessHistory(), resumed.getWorstFitnessHistory());
+        assertArrayEquals(expected.getGenome().words(), actual.getGenome().words());
+        assertEquals(expected.getFitness(), actual.getFitness());
+        assertEquals(uninterrupted.getEvaluations(), resumed.getEvaluations());
+        assertEquals(uninterrupted.getCacheHits(), resumed.getCacheHits());
+        assertEquals(uninterrupted.getCacheMisses(), resumed.getCacheMisses());
+        assertEquals(uninterrupted.getDuplicatesReplaced(), resumed.getDuplicatesReplaced());
+    }
+
+    // Limiar de convergência negativo: roda todas as gerações.
+    private static GA newGA(GA.Encoding encoding, boolean cache) {
+        GA ga = new GA(30, 0.8, 0.02, 2, GENERATIONS, -1);
+        ga.setSeed(5);
+        ga.setEncoding(encoding);
+        if (cache) {
+            ga.setFitnessCacheSize(CACHE_ENTRIES);
+            ga.setDuplicateElimination(true);
+        }
+        return ga;
+    }
+}
@@ -0,0 +1,120 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class ChromosomeTest
+{
+    // Somas incrementais acumulam arredondamentos diferentes da soma completa.
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void flipsMatchAFullRecompute() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        for (int size : new int[]{1, 63, 64, 65, 1000}) {
+            KnapsackInstance instance = TestInstances.random(size, size);
+            Chromosome chromosome = TestInstances.randomChromosome(instance, random);
+            for (int step = 0; step < 2000; step++) {
+                chromosome.flip(random.nextInt(size));
+                assertMatchesRecompute(chromosome);
+            }
+        }
+    }
+
+    @Test
+    void crossoverMatchesAFullRecomputeAtEveryPoint() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(2);
+        KnapsackInstance instance = TestInstances.random(200, 3);
+        Chromosome head = TestInstances.randomChromosome(instance, random);
+        Chromosome tail = TestInstances.randomChromosome(instance, random);
+        // Pais já modificados por mutação: as somas por palavra vêm de atualizações incrementais.
+        for (int i = 0; i < 50; i++) {
+            head.flip(random.nextInt(200));
+            tail.flip(random.nextInt(200));
+        }
+
+        for (int point = 0; point <= instance.size(); point++) {
+            Chromosome child = new Chromosome(instance);
+            child.crossover(head, tail, point);
+            assertMatchesRecompute(child);
+            for (int i = 0; i < instance.size(); i++) {
+                assertEquals(i < point ? head.getGenome().get(i) : tail.getGenome().get(i),
+                        child.getGenome().get(i));
+            }
+        }
+    }
+
+    @Test
+    void repeatedGenerationsDoNotDriftFromAFullRecompute() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(4);
+        KnapsackInstance instance = TestInstances.random(500, 5);
+        Chromosome[] population = new Chromosome[20];
+        for (int i = 0; i < population.length; i++) {
+            population[i] = TestInstances.randomChromosome(instance, random);
+        }
+
+        for (int generation = 0; generation < 300; generation++) {
+            Chromosome[] next = new Chromosome[population.length];
+            for (int i = 0; i < next.length; i++) {
+                Chromosome child = new Chromosome(instance);
+                child.crossover(population[random.nextInt(population.length)],
+                        population[random.nextInt(population.length)],
+                        random.nextInt(instance.size() + 1));
+                for (int flips = random.nextInt(4); flips > 0; flips--) {
+                    child.flip(random.nextInt(instance.size()));
+                }
+                next[i] = child;
+            }
+            population = next;
+        }
+        for (Chromosome chromosome : population) {
+            assertMatchesRecompute(chromosome);
+        }
+    }
+
+    @Test
+    void parentsWithAnOutsideEvaluationRebuildTheirWordSums() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(6);
+        KnapsackInstance instance = TestInstances.random(300, 7);
+        Chromosome head = TestInstances.randomChromosome(instance, random);
+        Chromosome tail = TestInstances.randomChromosome(instance, random);
+        // Como ao vir do cache: só os totais, sem somas por palavra.
+        head.setEvaluation(head.getTotalValue(), head.getTotalWeight());
+        tail.setEvaluation(tail.getTotalValue(), tail.getTotalWeight());
+
+        Chromosome child = new Chromosome(instance);
+        child.crossover(head, tail, 131);
+        assertMatchesRecompute(child);
+    }
+
+    @Test
+    void deferredCrossoverEvaluatesOnFirstUseAndKeepsTheHash() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(8);
+        KnapsackInstance instance = TestInstances.random(150, 9);
+        Chromosome head = TestInstances.randomChromosome(instance, random);
+        Chromosome tail = TestInstances.randomChromosome(instance, random);
+        head.zobristHash();
+        tail.zobristHash();
+
+        Chromosome child = new Chromosome(instance);
+        child.crossoverGenes(head, tail, 77);
+        assertFalse(child.isEvaluated());
+        child.flip(3);
+        assertFalse(child.isEvaluated());
+        assertMatchesRecompute(child);
+    }
+
+    private static void assertMatchesRecompute(Chromosome chromosome) {
+        Chromosome full = new Chromosome(chromosome.getGenome(), chromosome.getInstance());
+        full.calculateFitness();
+        assertEquals(full.getTotalValue(), chromosome.getTotalValue(), TOLERANCE);
+        assertEquals(full.getTotalWeight(), chromosome.getTotalWeight(), TOLERANCE);
+        assertEquals(full.getFitness(), chromosome.getFitness(), TOLERANCE);
+        assertEquals(full.zobristHash(), chromosome.zobristHash());
+        assertArrayEquals(full.getGenome().words(), chromosome.getGenome().words());
+    }
+}
@@ -0,0 +1,66 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class EliteSelectorTest
+{
+    // Com empates a escolha entre índices de mesmo fitness é livre; o que precisa bater com a
+    // ordenação completa são os valores escolhidos, em ordem decrescente, e que nenhum
+    // índice de fora supere um escolhido.
+    @Test
+    void selectsTheSameTopKAsAFullSortIncludingTies() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        for (int trial = 0; trial < 500; trial++) {
+            int count = 1 + random.nextInt(200);
+            int k = random.nextInt(count + 5);
+            // Poucos valores distintos em metade das tentativas: muitos empates na fronteira.
+            int distinct = trial % 2 == 0 ? 1 + random.nextInt(5) : Integer.MAX_VALUE;
+            double[] fitness = new double[count];
+            for (int i = 0; i < count; i++) {
+                fitness[i] = distinct == Integer.MAX_VALUE ? random.nextGaussian()
+                        : random.nextInt(distinct);
+            }
+
+            int[] out = new int[count + 5];
+            int selected = new EliteSelector(k).select(fitness, count, out);
+
+            assertEquals(Math.min(k, count), selected);
+            double[] sorted = fitness.clone();
+            Arrays.sort(sorted);
+            double[] expected = new double[selected];
+            double[] actual = new double[selected];
+            boolean[] chosen = new boolean[count];
+            for (int i = 0; i < selected; i++) {
+                expected[i] = sorted[count - 1 - i];
+                actual[i] = fitness[out[i]];
+                assertTrue(!chosen[out[i]], "índice repetido");
+                chosen[out[i]] = true;
+            }
+            assertArrayEquals(expected, actual);
+
+            double weakest = selected > 0 ? actual[selected - 1] : Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                assertTrue(chosen[i] || fitness[i] <= weakest);
+            }
+        }
+    }
+
+    @Test
+    void reusesItsHeapAcrossCalls() {
+        EliteSelector selector = new EliteSelector(3);
+        int[] out = new int[3];
+        assertEquals(3, selector.select(new double[]{5, 1, 9, 7, 3}, 5, out));
+        assertArrayEquals(new int[]{2, 3, 0}, out);
+        // Só os dois primeiros valores contam.
+        assertEquals(2, selector.select(new double[]{4, 8, 100}, 2, out));
+        assertEquals(1, out[0]);
+        assertEquals(0, out[1]);
+        assertEquals(0, new EliteSelector(0).select(new double[]{1, 2}, 2, out));
+    }
+}
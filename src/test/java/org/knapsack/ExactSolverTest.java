@@ -0,0 +1,106 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class ExactSolverTest
+{
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void dynamicProgrammingMatchesBruteForce() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        for (int trial = 0; trial < 200; trial++) {
+            KnapsackInstance instance = TestInstances.random(random, 1 + random.nextInt(14), true);
+            double expected = bruteForce(instance);
+
+            assertEquals(expected, ExactSolver.optimalValue(instance), EPSILON);
+            Chromosome solution = ExactSolver.dynamicProgramming(instance);
+            assertEquals(expected, solution.getTotalValue(), EPSILON);
+            assertTrue(solution.getTotalWeight() <= instance.getCapacity());
+        }
+    }
+
+    @Test
+    void branchAndBoundMatchesBruteForce() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(2);
+        for (int trial = 0; trial < 200; trial++) {
+            KnapsackInstance instance = TestInstances.random(random, 1 + random.nextInt(14), false);
+            Chromosome solution = ExactSolver.branchAndBound(instance);
+
+            assertEquals(bruteForce(instance), solution.getTotalValue(), EPSILON);
+            assertTrue(solution.getTotalWeight() <= instance.getCapacity());
+            assertEquals(solution.getTotalValue(), ExactSolver.solve(instance).getTotalValue(),
+                    EPSILON);
+        }
+    }
+
+    // Antes da pilha explícita, a recursão estourava a pilha a partir de ~20 mil itens.
+    @Test
+    void branchAndBoundHandlesManyItems() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(3);
+        KnapsackInstance instance = TestInstances.random(random, 50_000, false);
+
+        Chromosome solution = ExactSolver.branchAndBound(instance);
+        assertTrue(solution.getTotalWeight() <= instance.getCapacity());
+        assertTrue(solution.getTotalValue() <= instance.lpBound() + EPSILON);
+        assertTrue(solution.getTotalValue() >= greedyValue(instance) - EPSILON);
+        assertEquals(solution.getTotalValue(), ExactSolver.optimalValue(instance), EPSILON);
+    }
+
+    // Mesmo ótimo pelos dois métodos em uma instância inteira grande.
+    @Test
+    void branchAndBoundMatchesDynamicProgrammingOnManyItems() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(4);
+        KnapsackInstance instance = TestInstances.random(random, 20_000, true);
+
+        assertEquals(ExactSolver.optimalValue(instance),
+                ExactSolver.branchAndBound(instance).getTotalValue(), EPSILON);
+    }
+
+    @Test
+    void solveFallsBackToBranchAndBoundWhenTheTableIsTooLarge() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(5);
+        KnapsackInstance instance = TestInstances.random(random, 40_000, true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ExactSolver.dynamicProgramming(instance));
+        Chromosome solution = ExactSolver.solve(instance);
+        assertEquals(ExactSolver.optimalValue(instance), solution.getTotalValue(), EPSILON);
+    }
+
+    private static double bruteForce(KnapsackInstance instance) {
+        int n = instance.size();
+        double best = 0;
+        for (int mask = 0; mask < 1 << n; mask++) {
+            double weight = 0;
+            double value = 0;
+            for (int i = 0; i < n; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    weight += instance.getWeight(i);
+                    value += instance.getValue(i);
+                }
+            }
+            if (weight <= instance.getCapacity()) {
+                best = Math.max(best, value);
+            }
+        }
+        return best;
+    }
+
+    private static double greedyValue(KnapsackInstance instance) {
+        double remaining = instance.getCapacity();
+        double value = 0;
+        for (int index : instance.ratioOrder()) {
+            if (instance.getWeight(index) <= remaining) {
+                remaining -= instance.getWeight(index);
+                value += instance.getValue(index);
+            }
+        }
+        return value;
+    }
+}
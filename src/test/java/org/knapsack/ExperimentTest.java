@@ -0,0 +1,53 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class ExperimentTest
+{
+    @Test
+    void singleThreadedRunsAreTimedOnTheCpuClock() {
+        List<Experiment.ExperimentResult> results = stream(ga -> {});
+        assertEquals(RunScheduler.currentThreadCpuNanos() >= 0, results.get(0).cpuTime);
+    }
+
+    // O relógio segue a configuração final do GA, não Config.THREADS_POR_EXECUCAO.
+    @Test
+    void multiThreadedRunsAreTimedOnTheWallClock() {
+        for (Experiment.ExperimentResult result : stream(ga -> ga.setParallelism(2))) {
+            assertFalse(result.cpuTime);
+            assertTrue(result.executionTimeMs > 0);
+        }
+    }
+
+    private static List<Experiment.ExperimentResult> stream(Consumer<GA> configurer) {
+        KnapsackInstance instance = KnapsackInstance.of(ExperimentRunner.createItemsFromConfig(),
+                Config.PESO_MAXIMO);
+        List<Experiment.ExperimentResult> results = new CopyOnWriteArrayList<>();
+        Experiment.streamRuns(instance, ExactSolver.optimalValue(instance), 2, "", configurer,
+                new ResultSink() {
+                    @Override
+                    public boolean includesHistory() {
+                        return false;
+                    }
+
+                    @Override
+                    public void accept(String label, long seed, Experiment.ExperimentResult result,
+                                       double[] best, double[] average, double[] worst,
+                                       double[] diversity) {
+                        results.add(result);
+                    }
+
+                    @Override
+                    public void close() {}
+                });
+        assertEquals(2, results.size());
+        return results;
+    }
+}
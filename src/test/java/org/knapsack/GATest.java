@@ -0,0 +1,251 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class GATest
+{
+    private static final int POPULATION = 40;
+    private static final int GENERATIONS = 30;
+
+    @Test
+    void duplicateEliminationKeepsRepairedIndividualsFeasibleAndUnique() {
+        KnapsackInstance instance = TestInstances.random(120, 3);
+        GA ga = newGA(GA.Encoding.BINARY);
+        ga.setRepair(true);
+
+        ga.prepare(instance);
+        try {
+            for (int generation = 0; generation < GENERATIONS; generation++) {
+                ga.step(generation);
+                List<Chromosome> population = ga.emigrants(POPULATION);
+                for (Chromosome chromosome : population) {
+                    assertTrue(chromosome.isValid(), "indivíduo inviável na geração " + generation);
+                }
+                // Em geral o reparo pode desfazer as inversões até esgotar as tentativas e deixar
+                // uma cópia; com 120 genes e uma inversão a mais por tentativa isso não ocorre, e
+                // a elite vem de uma população já sem cópias.
+                assertEquals(POPULATION, distinctGenomes(population));
+            }
+        } finally {
+            ga.finish();
+        }
+        assertTrue(ga.getDuplicatesReplaced() > 0);
+    }
+
+    @Test
+    void duplicateEliminationKeepsRandomKeysConsistentWithTheGenome() {
+        KnapsackInstance instance = TestInstances.random(120, 4);
+        GA ga = newGA(GA.Encoding.RANDOM_KEY);
+
+        ga.prepare(instance);
+        try {
+            for (int generation = 0; generation < GENERATIONS; generation++) {
+                ga.step(generation);
+                List<Chromosome> population = ga.emigrants(POPULATION);
+                for (Chromosome chromosome : population) {
+                    RandomKeyChromosome keyed = (RandomKeyChromosome) chromosome;
+                    float[] keys = new float[instance.size()];
+                    for (int i = 0; i < keys.length; i++) {
+                        keys[i] = keyed.getKey(i);
+                        assertTrue(keys[i] >= 0 && keys[i] < 1);
+                    }
+                    // Decodificar as chaves de novo precisa dar o mesmo genoma e avaliação.
+                    RandomKeyChromosome decoded = RandomKeyChromosome.withKeys(instance, keys);
+                    assertArrayEquals(decoded.getGenome().words(), keyed.getGenome().words());
+                    assertEquals(decoded.getFitness(), keyed.getFitness());
+                    assertTrue(keyed.isValid());
+                }
+                assertEquals(POPULATION, distinctGenomes(population));
+            }
+        } finally {
+            ga.finish();
+        }
+    }
+
+    @Test
+    void everyOffspringIsLookedUpInTheFitnessCache() {
+        KnapsackInstance instance = KnapsackInstance.of(ExperimentRunner.createItemsFromConfig(),
+                Config.PESO_MAXIMO);
+        GA ga = new GA(POPULATION, 0.5, 0.03, 2, GENERATIONS, -1);
+        ga.setSeed(9);
+        ga.setFitnessCacheSize(1 << 10);
+        ga.run(instance);
+
+        // Cada filho (de crossover ou cópia) gera exatamente uma consulta.
+        assertEquals(ga.getEvaluations() - POPULATION, ga.getCacheHits() + ga.getCacheMisses());
+        assertTrue(ga.getCacheHits() > ga.getCacheMisses());
+    }
+
+    // Cada bloco de filhos usa um gerador separado do principal, então o resultado depende
+    // da semente e do número de threads, mas não da ordem em que os blocos terminam.
+    @Test
+    void parallelBreedingIsReproducibleForTheSameSeed() {
+        KnapsackInstance instance = TestInstances.random(300, 12);
+        for (boolean cached : new boolean[]{false, true}) {
+            GA reference = newParallelGA(cached);
+            Chromosome expected = reference.run(instance);
+            for (int repeat = 0; repeat < 3; repeat++) {
+                GA ga = newParallelGA(cached);
+                Chromosome best = ga.run(instance);
+
+                assertArrayEquals(expected.getGenome().words(), best.getGenome().words());
+                assertArrayEquals(reference.getBestFitnessHistory(), ga.getBestFitnessHistory());
+                assertArrayEquals(reference.getAverageFitnessHistory(),
+                        ga.getAverageFitnessHistory());
+                assertEquals(reference.getEvaluations(), ga.getEvaluations());
+                assertEquals(reference.getCacheHits(), ga.getCacheHits());
+            }
+        }
+    }
+
+        @Test
+    void alternativeEnginesAreReproducibleForTheSameSeed() {
+        KnapsackInstance instance = TestInstances.random(300, 5);
+        for (GA.Engine engine : List.of(GA.Engine.BUFFERED, GA.Engine.OFF_HEAP)) {
+            GA first = newEngineGA(engine);
+            GA second = newEngineGA(engine);
+            List<GenerationStats> published = new ArrayList<>();
+            first.addListener(published::add);
+
+            Chromosome a = first.run(instance);
+            Chromosome b = second.run(instance);
+
+            assertArrayEquals(a.getGenome().words(), b.getGenome().words(), engine.name());
+            assertArrayEquals(first.getBestFitnessHistory(), second.getBestFitnessHistory());
+            assertEquals(GENERATIONS, first.getBestFitnessHistory().length);
+            assertEquals(GENERATIONS, published.size());
+            assertEquals(a.getFitness(), first.getLastStats().bestFitness, 1e-6);
+            assertEquals(first.getLastStats().totalEvaluations, first.getEvaluations());
+            assertTrue(first.getOptimalityGap() >= 0);
+        }
+    }
+
+    @Test
+    void everyEngineStopsOnceTheBestReachesTheTarget() {
+        KnapsackInstance instance = KnapsackInstance.of(ExperimentRunner.createItemsFromConfig(),
+                Config.PESO_MAXIMO);
+        double optimum = ExactSolver.optimalValue(instance);
+        for (GA.Engine engine : GA.Engine.values()) {
+            GA ga = new GA(POPULATION, 0.8, 0.02, 2, 500, -1);
+            ga.setSeed(13);
+            ga.setEngine(engine);
+            ga.setTargetFitness(optimum);
+
+            Chromosome best = ga.run(instance);
+
+            assertEquals(optimum, best.getFitness(), 1e-9, engine.name());
+            assertEquals(ga.getTargetGeneration(), ga.getConvergenceGeneration(), engine.name());
+            assertEquals(ga.getTargetGeneration() + 1, ga.getBestFitnessHistory().length);
+            assertEquals(0, ga.getOptimalityGap(), 1e-9);
+        }
+    }
+
+    // Sem alvo, o limite é o da relaxação linear: a execução para na primeira geração cujo
+    // melhor fica a no máximo 'gap' dele, e não antes.
+    @Test
+    void everyEngineStopsAtTheFirstGenerationWithinTheGapOfTheLpBound() {
+        KnapsackInstance instance = TestInstances.random(200, 14);
+        double bound = instance.lpBound();
+        double gap = 0.05;
+        for (GA.Engine engine : GA.Engine.values()) {
+            GA ga = new GA(POPULATION, 0.8, 0.02, 2, 500, -1);
+            ga.setSeed(15);
+            ga.setEngine(engine);
+            ga.setTargetGap(gap);
+
+            ga.run(instance);
+
+            double[] history = ga.getBestFitnessHistory();
+            int last = history.length - 1;
+            assertTrue(last > 0 && last < 499, engine.name() + " não atingiu o gap");
+            assertEquals(last, ga.getConvergenceGeneration(), engine.name());
+            assertTrue(GA.optimalityGap(history[last], bound) <= gap);
+            for (int g = 0; g < last; g++) {
+                assertTrue(GA.optimalityGap(history[g], bound) > gap, engine.name() + " " + g);
+            }
+            assertEquals(GA.optimalityGap(history[last], bound), ga.getOptimalityGap(), 1e-9);
+        }
+
+        // Tudo cabe na mochila: o limite linear é a soma dos valores e o ótimo o atinge.
+        KnapsackInstance loose = new KnapsackInstance(new double[]{1, 2, 3, 4},
+                new double[]{5, 6, 7, 8}, 100);
+        for (GA.Engine engine : GA.Engine.values()) {
+            GA ga = new GA(POPULATION, 0.8, 0.02, 2, 500, -1);
+            ga.setSeed(16);
+            ga.setEngine(engine);
+
+            Chromosome best = ga.run(loose);
+
+            assertEquals(26, best.getFitness(), 1e-9, engine.name());
+            assertEquals(0, ga.getOptimalityGap(), 1e-9);
+            assertEquals(ga.getBestFitnessHistory().length - 1, ga.getConvergenceGeneration());
+            assertTrue(ga.getConvergenceGeneration() < 499);
+        }
+    }
+
+    @Test
+    void bufferedEngineKeepsNoHistoryWhenAskedNotTo() {
+        KnapsackInstance instance = TestInstances.random(100, 8);
+        BufferedGA ga = new BufferedGA(POPULATION, 0.8, 0.01, 2, GENERATIONS, -1);
+        ga.setSeed(3);
+        ga.setRecordHistory(false);
+        ga.run(instance);
+
+        assertEquals(0, ga.getBestFitnessHistory().length);
+        assertEquals(GENERATIONS - 1, ga.getLastStats().generation);
+        assertEquals(POPULATION + (long) GENERATIONS * (POPULATION - 2),
+                ga.getLastStats().totalEvaluations);
+    }
+
+    @Test
+    void alternativeEnginesRejectOptionsTheyDoNotImplement() {
+        KnapsackInstance instance = TestInstances.random(50, 6);
+        GA ga = newEngineGA(GA.Engine.BUFFERED);
+        ga.setRepair(true);
+        assertThrows(IllegalStateException.class, () -> ga.run(instance));
+    }
+
+    private static GA newParallelGA(boolean cached) {
+        GA ga = new GA(POPULATION * 5, 0.8, 0.01, 2, GENERATIONS, -1);
+        ga.setSeed(17);
+        ga.setParallelism(4);
+        if (cached) {
+            ga.setFitnessCacheSize(1 << 10);
+        }
+        return ga;
+    }
+
+        private static GA newEngineGA(GA.Engine engine) {
+        GA ga = new GA(POPULATION, 0.8, 0.01, 2, GENERATIONS, -1);
+        ga.setSeed(21);
+        ga.setEngine(engine);
+        return ga;
+    }
+
+    // Taxa de mutação baixa e sem crossover, para que apareçam muitas cópias.
+    private static GA newGA(GA.Encoding encoding) {
+        GA ga = new GA(POPULATION, 0.0, 0.001, 2, GENERATIONS, -1);
+        ga.setSeed(11);
+        ga.setEncoding(encoding);
+        ga.setDuplicateElimination(true);
+        return ga;
+    }
+
+    private static int distinctGenomes(List<Chromosome> population) {
+        Set<String> genomes = new HashSet<>();
+        for (Chromosome chromosome : population) {
+            genomes.add(Arrays.toString(chromosome.getGenome().words()));
+        }
+        return genomes.size();
+    }
+}
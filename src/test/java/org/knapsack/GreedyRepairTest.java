@@ -0,0 +1,64 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class GreedyRepairTest
+{
+    // Com até NEIGHBORHOOD itens a vizinhança é a completa e, nestas instâncias, o limite de
+    // trocas não é atingido: no fim não resta troca que melhore.
+    @Test
+    void localSearchLeavesNoImprovingSwapOnSmallInstances() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        for (int trial = 0; trial < 200; trial++) {
+            KnapsackInstance instance = TestInstances.random(random,
+                    1 + random.nextInt(GreedyRepair.NEIGHBORHOOD), trial % 2 == 0);
+            Chromosome chromosome = TestInstances.randomChromosome(instance, random);
+            GreedyRepair.repair(chromosome);
+            double repaired = chromosome.getTotalValue();
+
+            GreedyRepair.localSearch(chromosome);
+
+            assertTrue(chromosome.isValid());
+            assertTrue(chromosome.getTotalValue() >= repaired);
+            assertFalse(hasImprovingSwap(chromosome), "tentativa " + trial);
+        }
+    }
+
+    // Em instâncias grandes a busca fica limitada, mas continua viável e nunca piora.
+    @Test
+    void boundedLocalSearchKeepsLargeInstancesFeasibleAndNeverWorse() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(2);
+        KnapsackInstance instance = TestInstances.random(20_000, 3);
+        for (int trial = 0; trial < 5; trial++) {
+            Chromosome chromosome = TestInstances.randomChromosome(instance, random);
+            GreedyRepair.repair(chromosome);
+            double repaired = chromosome.getTotalValue();
+
+            GreedyRepair.localSearch(chromosome);
+
+            assertTrue(chromosome.isValid());
+            assertTrue(chromosome.getTotalValue() >= repaired);
+        }
+    }
+
+    private static boolean hasImprovingSwap(Chromosome chromosome) {
+        KnapsackInstance instance = chromosome.getInstance();
+        Genome genes = chromosome.getGenome();
+        double slack = instance.getCapacity() - chromosome.getTotalWeight();
+        for (int out = 0; out < instance.size(); out++) {
+            if (!genes.get(out)) continue;
+            for (int in = 0; in < instance.size(); in++) {
+                if (genes.get(in)) continue;
+                if (instance.getValue(in) > instance.getValue(out)
+                        && instance.getWeight(in) - instance.getWeight(out) <= slack) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,189 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InstanceImporterTest
+{
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvWithHeaderNamesAndComments() throws IOException {
+        Path input = write("itens.csv", """
+                # instância de teste
+                nome,peso,valor
+                A,10,60
+
+                B;20;100
+                C,30.5,120.25
+                """);
+        assertEquals(InstanceImporter.Format.CSV, InstanceImporter.detect(input));
+
+        KnapsackInstance instance = convert(input, InstanceImporter.Format.CSV, 50);
+        assertItems(instance, 50, new double[]{10, 20, 30.5}, new double[]{60, 100, 120.25});
+    }
+
+    @Test
+    void csvWithoutHeaderUsesWeightThenValue() throws IOException {
+        Path input = write("itens.csv", "3,4\n5,6\n");
+        KnapsackInstance instance = convert(input, InstanceImporter.detect(input), 7);
+        assertItems(instance, 7, new double[]{3, 5}, new double[]{4, 6});
+    }
+
+    @Test
+    void csvNeedsACapacity() throws IOException {
+        Path input = write("itens.csv", "3,4\n");
+        assertThrows(IllegalArgumentException.class, () -> InstanceImporter.convert(input,
+                InstanceImporter.Format.CSV, Double.NaN, dir.resolve("saida.knap")));
+    }
+
+    @Test
+    void pisingerReadsOnlyTheFirstInstance() throws IOException {
+        Path input = write("knapPI_1_3_1000.csv", """
+                knapPI_1_3_1000_1
+                n 3
+                c 995
+                z 1514
+                time 0.00
+                1,94,485,0
+                2,506,326,1
+                3,416,248,1
+                -----
+
+                knapPI_1_3_1000_2
+                n 3
+                c 970
+                z 1000
+                time 0.00
+                1,1,1,0
+                2,2,2,0
+                3,3,3,0
+                -----
+                """);
+        assertEquals(InstanceImporter.Format.PISINGER, InstanceImporter.detect(input));
+
+        KnapsackInstance instance = convert(input, InstanceImporter.Format.PISINGER, Double.NaN);
+        assertItems(instance, 995, new double[]{485, 326, 248}, new double[]{94, 506, 416});
+
+        // Capacidade informada substitui a do arquivo.
+        assertEquals(500, convert(input, InstanceImporter.Format.PISINGER, 500).getCapacity());
+    }
+
+    @Test
+    void orLibraryReadsValueThenWeight() throws IOException {
+        Path input = write("orlib.txt", """
+                4 20
+                10 5
+                40 4
+                30 6
+                50   3
+
+                """);
+        assertEquals(InstanceImporter.Format.ORLIB, InstanceImporter.detect(input));
+
+        KnapsackInstance instance = convert(input, InstanceImporter.Format.ORLIB, Double.NaN);
+        assertItems(instance, 20, new double[]{5, 4, 6, 3}, new double[]{10, 40, 30, 50});
+    }
+
+    @Test
+    void orLibraryRejectsMissingItems() throws IOException {
+        Path input = write("orlib.txt", "3 20\n10 5\n40 4\n");
+        assertThrows(IOException.class, () -> InstanceImporter.convert(input,
+                InstanceImporter.Format.ORLIB, Double.NaN, dir.resolve("saida.knap")));
+    }
+
+    @Test
+    void invalidNumbersReportTheLine() throws IOException {
+        Path input = write("itens.csv", "peso,valor\n1,2\n3,x\n");
+        IOException error = assertThrows(IOException.class, () -> InstanceImporter.convert(
+                input, InstanceImporter.Format.CSV, 10, dir.resolve("saida.knap")));
+        assertTrue(error.getMessage().contains("Linha 3"), error.getMessage());
+    }
+
+    // Uma conversão que falha não deixa saída parcial nem temporários, e não estraga a
+    // saída de uma conversão anterior.
+    @Test
+    void failedConversionLeavesTheOutputUntouched() throws IOException {
+        Path output = dir.resolve("saida.knap");
+        Path bad = write("ruim.csv", "peso,valor\n1,2\n3,x\n");
+        assertThrows(IOException.class, () -> InstanceImporter.convert(bad,
+                InstanceImporter.Format.CSV, 10, output));
+        assertFalse(Files.exists(output));
+
+        Path good = write("bom.csv", "3,4\n5,6\n");
+        InstanceImporter.convert(good, InstanceImporter.Format.CSV, 7, output);
+        byte[] converted = Files.readAllBytes(output);
+        assertThrows(IOException.class, () -> InstanceImporter.convert(bad,
+                InstanceImporter.Format.CSV, 10, output));
+        assertArrayEquals(converted, Files.readAllBytes(output));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(List.of("bom.csv", "ruim.csv", "saida.knap"),
+                    files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    void emptyInputCannotBeDetected() throws IOException {
+        Path input = write("vazio.csv", "\n# nada\n");
+        assertThrows(IOException.class, () -> InstanceImporter.detect(input));
+    }
+
+    // Vários buffers das colunas: confere a emenda dos pesos com os valores copiados no fim.
+    @Test
+    void largeInstancesKeepColumnsAligned() throws IOException {
+        int n = 300_000;
+        Path input = dir.resolve("grande.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < n; i++) {
+                writer.write(i + "," + (n - i) + "\n");
+            }
+        }
+
+        KnapsackInstance instance = convert(input, InstanceImporter.Format.CSV, 1e6);
+        assertEquals(n, instance.size());
+        for (int i = 0; i < n; i += 997) {
+            assertEquals(i, instance.getWeight(i));
+            assertEquals(n - i, instance.getValue(i));
+        }
+        assertEquals(n - 1, instance.getWeight(n - 1));
+        assertEquals(1, instance.getValue(n - 1));
+    }
+
+    private KnapsackInstance convert(Path input, InstanceImporter.Format format, double capacity)
+            throws IOException {
+        Path output = dir.resolve("saida.knap");
+        long count = InstanceImporter.convert(input, format, capacity, output);
+        KnapsackInstance instance = InstanceFile.read(output);
+        assertEquals(count, instance.size());
+        return instance;
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content, StandardCharsets.UTF_8);
+    }
+
+    private static void assertItems(KnapsackInstance instance, double capacity, double[] weights,
+                                    double[] values) {
+        assertEquals(capacity, instance.getCapacity());
+        assertEquals(weights.length, instance.size());
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i], instance.getWeight(i));
+            assertEquals(values[i], instance.getValue(i));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class IslandCoordinatorTest
+{
+    @Test
+    void duplicateIslandIdIsRejectedAndDoesNotTakeASlot() throws Exception {
+        int port = freePort();
+        IslandCoordinator coordinator = new IslandCoordinator(2, 10_000, 10_000);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread server = new Thread(() -> {
+            try {
+                coordinator.run(port);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        server.start();
+
+        try (Socket first = connect(port); Socket duplicate = connect(port)) {
+            hello(first, 1);
+            hello(duplicate, 1);
+            // A conexão repetida é fechada pelo coordenador.
+            assertEquals(-1, duplicate.getInputStream().read());
+
+            try (Socket second = connect(port)) {
+                hello(second, 2);
+                finish(first, 10.0);
+                finish(second, 20.0);
+            }
+        }
+
+        server.join(10_000);
+        assertFalse(server.isAlive());
+        assertEquals(null, failure.get());
+        assertEquals(2, coordinator.getBestFitnessHistories().size());
+        assertEquals(20.0, coordinator.getBestFitnessHistories().get(2)[0]);
+    }
+
+    @Test
+    void silentIslandTimesOut() throws Exception {
+        int port = freePort();
+        IslandCoordinator coordinator = new IslandCoordinator(1, 10_000, 200);
+        Thread server = new Thread(() -> {
+            try {
+                coordinator.run(port);
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        server.start();
+
+        try (Socket island = connect(port)) {
+            hello(island, 1);
+            server.join(10_000);
+            assertFalse(server.isAlive());
+            assertEquals(-1, new DataInputStream(island.getInputStream()).read());
+        }
+        assertEquals(0, coordinator.getBestFitnessHistories().size());
+    }
+
+    // Sem tempo limite de leitura explícito, uma época mais longa que o tempo limite de
+    // aceitação não derruba a ilha.
+    @Test
+    void epochLongerThanTheAcceptTimeoutKeepsTheIsland() throws Exception {
+        int port = freePort();
+        IslandCoordinator coordinator = new IslandCoordinator(1, 300);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread server = new Thread(() -> {
+            try {
+                coordinator.run(port);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        server.start();
+
+        try (Socket island = connect(port)) {
+            hello(island, 1);
+            Thread.sleep(1_000);
+            finish(island, 5.0);
+        }
+
+        server.join(10_000);
+        assertFalse(server.isAlive());
+        assertEquals(null, failure.get());
+        assertEquals(5.0, coordinator.getBestFitnessHistories().get(1)[0]);
+    }
+
+    private static void hello(Socket socket, int id) throws IOException {
+        MigrantCodec.writeFrame(output(socket), MigrantCodec.HELLO, MigrantCodec.encodeHello(id));
+    }
+
+    private static void finish(Socket socket, double best) throws IOException {
+        KnapsackInstance instance = new KnapsackInstance(new double[]{1}, new double[]{best}, 1);
+        Chromosome chromosome = new Chromosome(instance);
+        chromosome.flip(0);
+        MigrantCodec.writeFrame(output(socket), MigrantCodec.RESULT,
+                MigrantCodec.encodeResult(new double[]{best}, chromosome));
+        socket.shutdownOutput();
+    }
+
+    private static DataOutputStream output(Socket socket) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    // Tenta até o coordenador começar a aceitar conexões.
+    private static Socket connect(int port) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return new Socket("localhost", port);
+            } catch (IOException e) {
+                if (attempt == 100) throw e;
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            assertNotNull(socket);
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class KnapsackInstanceTest
+{
+    @Test
+    void ratioOrderMatchesAStableComparatorSort() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        for (int trial = 0; trial < 50; trial++) {
+            KnapsackInstance instance = TestInstances.random(random, 1 + random.nextInt(2000),
+                    trial % 2 == 0);
+            assertArrayEquals(reference(instance), instance.ratioOrder());
+        }
+    }
+
+    // Razões que diferem só nos bits baixos (caem no mesmo trecho da primeira passada),
+    // empates exatos, pesos zero e valores zero ou negativos.
+    @Test
+    void ratioOrderResolvesNearTiesAndSpecialRatios() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(2);
+        int n = 5000;
+        double[] weights = new double[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1;
+            values[i] = switch (random.nextInt(6)) {
+                case 0 -> 1.0 + Math.ulp(1.0) * random.nextInt(1000);
+                case 1 -> -1.0 - Math.ulp(1.0) * random.nextInt(1000);
+                case 2 -> 3.0;
+                case 3 -> 0.0;
+                default -> random.nextDouble() * 10;
+            };
+            if (random.nextInt(50) == 0) {
+                weights[i] = 0;
+            }
+        }
+        KnapsackInstance instance = new KnapsackInstance(weights, values, n / 3.0);
+        assertArrayEquals(reference(instance), instance.ratioOrder());
+    }
+
+    @Test
+    void lpBoundFollowsTheRatioOrder() {
+        KnapsackInstance instance = new KnapsackInstance(new double[]{10, 20, 30},
+                new double[]{60, 100, 120}, 50);
+        assertArrayEquals(new int[]{0, 1, 2}, instance.ratioOrder());
+        assertEquals(60 + 100 + 120 * 20 / 30.0, instance.lpBound(), 1e-9);
+    }
+
+    // A ordenação anterior: índices em objetos e comparador (estável).
+    private static int[] reference(KnapsackInstance instance) {
+        Integer[] sorted = new Integer[instance.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> Double.compare(ratio(instance, b), ratio(instance, a)));
+        return Arrays.stream(sorted).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double ratio(KnapsackInstance instance, int index) {
+        double weight = instance.getWeight(index);
+        double value = instance.getValue(index);
+        if (weight > 0) return value / weight;
+        return value > 0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+    }
+}
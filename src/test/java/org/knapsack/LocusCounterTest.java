@@ -0,0 +1,98 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class LocusCounterTest
+{
+    @Test
+    void diversityEqualsThePairwiseHammingAverage() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        for (int size : new int[]{1, 63, 64, 65, 300}) {
+            LocusCounter counter = new LocusCounter(size);
+            for (int individuals : new int[]{2, 3, 17, 60}) {
+                long[][] population = population(random, individuals, size);
+                counter.reset();
+                for (long[] words : population) {
+                    counter.add(words);
+                }
+                assertEquals(pairwise(population, size), counter.diversity(), 1e-9,
+                        size + " genes, " + individuals + " indivíduos");
+            }
+        }
+
+        // Uma população só de cópias não tem diversidade.
+        long[] genome = population(random, 1, 300)[0];
+        LocusCounter counter = new LocusCounter(300);
+        for (int i = 0; i < 10; i++) {
+            counter.add(genome);
+        }
+        assertEquals(0, counter.diversity());
+    }
+
+    @Test
+    void offHeapGenomesCountLikeArrays() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(2);
+        int size = 200;
+        int words = Genome.wordCount(size);
+        long[][] population = population(random, 25, size);
+
+        LocusCounter onHeap = new LocusCounter(size);
+        LocusCounter offHeap = new LocusCounter(size);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment genomes = arena.allocate((long) population.length * words * Long.BYTES,
+                    Long.BYTES);
+            for (int i = 0; i < population.length; i++) {
+                MemorySegment.copy(population[i], 0, genomes, ValueLayout.JAVA_LONG,
+                        (long) i * words * Long.BYTES, words);
+                onHeap.add(population[i]);
+                offHeap.add(genomes, (long) i * words, words);
+            }
+        }
+        assertEquals(onHeap.diversity(), offHeap.diversity());
+        assertEquals(pairwise(population, size), offHeap.diversity(), 1e-9);
+    }
+
+    @Test
+    void fewerThanTwoIndividualsHaveNoDiversity() {
+        LocusCounter counter = new LocusCounter(10);
+        assertEquals(0, counter.diversity());
+        counter.add(new long[]{0b1011});
+        assertEquals(0, counter.diversity());
+    }
+
+    // Referência O(P² × n): distância de Hamming de cada par, em % do tamanho do genoma.
+    private static double pairwise(long[][] population, int size) {
+        long total = 0;
+        long pairs = 0;
+        for (int a = 0; a < population.length; a++) {
+            for (int b = a + 1; b < population.length; b++) {
+                for (int w = 0; w < population[a].length; w++) {
+                    total += Long.bitCount(population[a][w] ^ population[b][w]);
+                }
+                pairs++;
+            }
+        }
+        return (double) total / pairs / size * 100.0;
+    }
+
+    private static long[][] population(RandomGenerator random, int individuals, int size) {
+        long[][] population = new long[individuals][];
+        for (int i = 0; i < individuals; i++) {
+            long[] words = new long[Genome.wordCount(size)];
+            for (int w = 0; w < words.length; w++) {
+                words[w] = random.nextLong();
+            }
+            if ((size & 63) != 0) {
+                words[words.length - 1] &= -1L >>> (64 - (size & 63));
+            }
+            population[i] = words;
+        }
+        return population;
+    }
+}
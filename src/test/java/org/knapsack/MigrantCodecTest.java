@@ -0,0 +1,151 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class MigrantCodecTest
+{
+    @Test
+    void batchRoundTripsThroughAFrame() throws IOException {
+        KnapsackInstance instance = TestInstances.random(130, 130);
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        List<Chromosome> migrants = List.of(TestInstances.randomChromosome(instance, random),
+                TestInstances.randomChromosome(instance, random),
+                TestInstances.randomChromosome(instance, random));
+
+        byte[] payload = MigrantCodec.encodeBatch(migrants);
+        MigrantCodec.Frame frame = roundTrip(MigrantCodec.MIGRANTS, payload);
+
+        assertEquals(MigrantCodec.MIGRANTS, frame.type);
+        List<Chromosome> decoded = MigrantCodec.decodeBatch(frame.payload, instance);
+        assertEquals(migrants.size(), decoded.size());
+        double best = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m < migrants.size(); m++) {
+            assertArrayEquals(migrants.get(m).getGenome().words(), decoded.get(m).getGenome().words());
+            assertEquals(migrants.get(m).getFitness(), decoded.get(m).getFitness());
+            best = Math.max(best, migrants.get(m).getFitness());
+        }
+        assertEquals(best, MigrantCodec.bestFitness(frame.payload));
+    }
+
+    @Test
+    void helloAndResultRoundTrip() throws IOException {
+        assertEquals(7, MigrantCodec.decodeHello(
+                roundTrip(MigrantCodec.HELLO, MigrantCodec.encodeHello(7)).payload));
+
+        KnapsackInstance instance = TestInstances.random(70, 70);
+        Chromosome best = TestInstances.randomChromosome(instance, GA.RANDOM_FACTORY.create(2));
+        double[] history = {1.5, 2.5, 4.0};
+        byte[] payload = roundTrip(MigrantCodec.RESULT,
+                MigrantCodec.encodeResult(history, best)).payload;
+
+        MigrantCodec.checkResult(payload);
+        assertArrayEquals(history, MigrantCodec.decodeResultHistory(payload));
+        assertArrayEquals(best.getGenome().words(),
+                MigrantCodec.decodeResultBest(payload, instance).getGenome().words());
+    }
+
+    @Test
+    void readFrameReturnsNullAtEndOfStream() throws IOException {
+        assertNull(MigrantCodec.readFrame(new DataInputStream(new ByteArrayInputStream(new byte[0]))));
+
+        // Carga cortada no meio: a outra ponta caiu durante o envio.
+        byte[] truncated = ByteBuffer.allocate(9).put(MigrantCodec.MIGRANTS).putInt(100).array();
+        assertNull(MigrantCodec.readFrame(new DataInputStream(new ByteArrayInputStream(truncated))));
+    }
+
+    @Test
+    void readFrameRejectsBadLengthsBeforeAllocating() {
+        for (int length : new int[]{-1, Integer.MIN_VALUE, MigrantCodec.MAX_FRAME_BYTES + 1,
+                Integer.MAX_VALUE}) {
+            byte[] header = ByteBuffer.allocate(5).put(MigrantCodec.MIGRANTS).putInt(length).array();
+            assertThrows(IOException.class, () ->
+                    MigrantCodec.readFrame(new DataInputStream(new ByteArrayInputStream(header))));
+        }
+    }
+
+    @Test
+    void decodersRejectPayloadsThatDoNotHoldTheirCounts() {
+        KnapsackInstance instance = TestInstances.random(64, 64);
+        byte[] payload = MigrantCodec.encodeBatch(List.of(
+                TestInstances.randomChromosome(instance, GA.RANDOM_FACTORY.create(3))));
+
+        byte[] inflated = payload.clone();
+        ByteBuffer.wrap(inflated).putInt(0, 1_000_000);
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.decodeBatch(inflated, instance));
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.bestFitness(inflated));
+
+        byte[] negative = payload.clone();
+        ByteBuffer.wrap(negative).putInt(0, -5);
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.decodeBatch(negative, instance));
+
+        byte[] cut = Arrays.copyOf(payload, payload.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.decodeBatch(cut, instance));
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.bestFitness(new byte[3]));
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.decodeHello(new byte[2]));
+
+        byte[] history = ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).array();
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.checkResult(history));
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.decodeResultHistory(history));
+    }
+
+    @Test
+    void decodeBatchRejectsAnotherInstanceSize() {
+        KnapsackInstance instance = TestInstances.random(40, 40);
+        byte[] payload = MigrantCodec.encodeBatch(List.of(
+                TestInstances.randomChromosome(instance, GA.RANDOM_FACTORY.create(4))));
+        assertThrows(IllegalArgumentException.class,
+                () -> MigrantCodec.decodeBatch(payload, TestInstances.random(41, 41)));
+    }
+
+    // Bits além do último gene fariam as somas por palavra indexarem itens inexistentes.
+    @Test
+    void decodersRejectBitsPastTheLastGene() {
+        KnapsackInstance instance = TestInstances.random(70, 70);
+        RandomGenerator random = GA.RANDOM_FACTORY.create(5);
+        byte[] payload = MigrantCodec.encodeBatch(List.of(
+                TestInstances.randomChromosome(instance, random),
+                TestInstances.randomChromosome(instance, random)));
+        MigrantCodec.decodeBatch(payload, instance);
+
+        // Segunda palavra do primeiro migrante: contagem, tamanho, fitness e primeira palavra.
+        int lastWord = 2 * Integer.BYTES + Double.BYTES + Long.BYTES;
+        for (int bit : new int[]{70 - 64, 63}) {
+            byte[] dirty = payload.clone();
+            ByteBuffer buffer = ByteBuffer.wrap(dirty);
+            buffer.putLong(lastWord, buffer.getLong(lastWord) | 1L << bit);
+            assertThrows(IllegalArgumentException.class,
+                    () -> MigrantCodec.decodeBatch(dirty, instance));
+            assertThrows(IllegalArgumentException.class, () -> MigrantCodec.bestFitness(dirty));
+        }
+
+        byte[] result = MigrantCodec.encodeResult(new double[]{1.0},
+                TestInstances.randomChromosome(instance, random));
+        MigrantCodec.checkResult(result);
+        ByteBuffer buffer = ByteBuffer.wrap(result);
+        buffer.putLong(result.length - Long.BYTES, buffer.getLong(result.length - Long.BYTES)
+                | Long.MIN_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> MigrantCodec.checkResult(result));
+        assertThrows(IllegalArgumentException.class,
+                () -> MigrantCodec.decodeResultBest(result, instance));
+    }
+
+    private static MigrantCodec.Frame roundTrip(byte type, byte[] payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MigrantCodec.writeFrame(new DataOutputStream(bytes), type, payload);
+        return MigrantCodec.readFrame(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
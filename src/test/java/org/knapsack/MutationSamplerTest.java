@@ -0,0 +1,74 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class MutationSamplerTest
+{
+    private static final int SIZE = 1000;
+    private static final int TRIALS = 2000;
+    private static final int BINS = 10;
+
+    // Cada gene deve mutar com probabilidade 'rate', independente da posição: o total por
+    // genoma e a contagem em cada faixa de posições ficam a poucos desvios da binomial.
+    @Test
+    void flipRateMatchesTheConfiguredRateAtEveryPosition() {
+        for (double rate : new double[]{0.001, 0.01, 0.1, 0.5}) {
+            MutationSampler sampler = new MutationSampler(rate);
+            RandomGenerator random = GA.RANDOM_FACTORY.create(Double.doubleToLongBits(rate));
+            long[] bins = new long[BINS];
+            long total = 0;
+            double sumOfSquares = 0;
+            for (int trial = 0; trial < TRIALS; trial++) {
+                int flips = 0;
+                int last = -1;
+                for (int i = sampler.next(-1, SIZE, random); i >= 0;
+                     i = sampler.next(i, SIZE, random)) {
+                    assertTrue(i > last && i < SIZE);
+                    bins[i * BINS / SIZE]++;
+                    last = i;
+                    flips++;
+                }
+                total += flips;
+                sumOfSquares += (double) flips * flips;
+            }
+
+            double trials = (double) TRIALS * SIZE;
+            assertWithinSigmas(trials * rate, total, trials * rate * (1 - rate), "total, p=" + rate);
+            double perBin = trials / BINS;
+            for (int b = 0; b < BINS; b++) {
+                assertWithinSigmas(perBin * rate, bins[b], perBin * rate * (1 - rate),
+                        "faixa " + b + ", p=" + rate);
+            }
+
+            // Variância por genoma da binomial n·p·(1-p), com folga para a amostra.
+            double mean = (double) total / TRIALS;
+            double variance = sumOfSquares / TRIALS - mean * mean;
+            double expected = SIZE * rate * (1 - rate);
+            assertEquals(expected, variance, expected * 0.2, "variância, p=" + rate);
+        }
+    }
+
+    @Test
+    void extremeRatesMutateNothingOrEverything() {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(1);
+        assertEquals(-1, new MutationSampler(0).next(-1, SIZE, random));
+
+        MutationSampler always = new MutationSampler(1);
+        int index = -1;
+        for (int expected = 0; expected < SIZE; expected++) {
+            index = always.next(index, SIZE, random);
+            assertEquals(expected, index);
+        }
+        assertEquals(-1, always.next(index, SIZE, random));
+    }
+
+    // Cinco desvios-padrão: falha só se a taxa estiver de fato errada.
+    private static void assertWithinSigmas(double expected, long actual, double variance,
+                                           String message) {
+        assertEquals(expected, actual, 5 * Math.sqrt(variance), message);
+    }
+}
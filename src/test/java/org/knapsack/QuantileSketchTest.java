@@ -0,0 +1,143 @@
+package org.knapsack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class QuantileSketchTest
+{
+    private static final double[] QUANTILES = {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99};
+    // Folga para o arredondamento de log/pow nas bordas dos baldes.
+    private static final double ACCURACY = QuantileSketch.RELATIVE_ACCURACY + 1e-9;
+
+    private static final Map<String, ToDoubleFunction<RandomGenerator>> DISTRIBUTIONS = Map.of(
+            "uniforme", random -> random.nextDouble() * 1000,
+            "lognormal", random -> Math.exp(random.nextGaussian() * 3),
+            "exponencial", random -> random.nextExponential() * 50,
+            "com sinal", random -> random.nextGaussian() * 100,
+            "inteiros", random -> random.nextInt(20));
+
+    @Test
+    void quantilesStayWithinTheRelativeAccuracy() {
+        DISTRIBUTIONS.forEach((name, distribution) -> {
+            double[] values = sample(distribution, 100_000, 1);
+            QuantileSketch sketch = new QuantileSketch();
+            for (double value : values) {
+                sketch.add(value);
+            }
+            assertAccurate(name, values, sketch);
+        });
+    }
+
+    @Test
+    void mergedSketchesEqualOneSketchOverAllValues() {
+        DISTRIBUTIONS.forEach((name, distribution) -> {
+            double[] values = sample(distribution, 40_000, 2);
+            QuantileSketch whole = new QuantileSketch();
+            QuantileSketch[] parts = new QuantileSketch[4];
+            for (int p = 0; p < parts.length; p++) {
+                parts[p] = new QuantileSketch();
+            }
+            for (int i = 0; i < values.length; i++) {
+                whole.add(values[i]);
+                parts[i % parts.length].add(values[i]);
+            }
+
+            QuantileSketch merged = new QuantileSketch();
+            for (QuantileSketch part : parts) {
+                merged.merge(part);
+            }
+            assertEquals(whole.count(), merged.count());
+            for (double q : QUANTILES) {
+                assertEquals(whole.quantile(q), merged.quantile(q), name + " q=" + q);
+            }
+            assertAccurate(name, values, merged);
+        });
+    }
+
+    @Test
+    void emptySketchHasNoQuantile() {
+        assertTrue(Double.isNaN(new QuantileSketch().quantile(0.5)));
+        assertTrue(Double.isNaN(new StreamingStatistics().p99()));
+    }
+
+    @Test
+    void streamingStatisticsMatchTheExactValues() throws InterruptedException {
+        double[] values = sample(DISTRIBUTIONS.get("lognormal"), 50_000, 3);
+
+        // Quatro threads, cada uma com seu acumulador e também somando em um compartilhado.
+        StreamingStatistics shared = new StreamingStatistics();
+        StreamingStatistics[] perThread = new StreamingStatistics[4];
+        ExecutorService executor = Executors.newFixedThreadPool(perThread.length);
+        for (int t = 0; t < perThread.length; t++) {
+            int thread = t;
+            perThread[t] = new StreamingStatistics();
+            executor.execute(() -> {
+                for (int i = thread; i < values.length; i += perThread.length) {
+                    perThread[thread].add(values[i]);
+                    shared.add(values[i]);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        StreamingStatistics merged = new StreamingStatistics();
+        for (StreamingStatistics statistics : perThread) {
+            merged.merge(statistics);
+        }
+
+        double mean = Arrays.stream(values).average().orElseThrow();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum()
+                / values.length;
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (StreamingStatistics statistics : new StreamingStatistics[]{shared, merged}) {
+            assertEquals(values.length, statistics.count());
+            assertEquals(mean, statistics.mean(), Math.abs(mean) * 1e-12);
+            assertEquals(variance, statistics.variance(), variance * 1e-9);
+            assertEquals(sorted[0], statistics.min());
+            assertEquals(sorted[sorted.length - 1], statistics.max());
+            assertEquals(sorted[0], statistics.quantile(0));
+            assertEquals(sorted[sorted.length - 1], statistics.quantile(1));
+            assertWithin(exact(sorted, 0.50), statistics.p50(), "p50");
+            assertWithin(exact(sorted, 0.95), statistics.p95(), "p95");
+            assertWithin(exact(sorted, 0.99), statistics.p99(), "p99");
+        }
+    }
+
+    private static void assertAccurate(String name, double[] values, QuantileSketch sketch) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            assertWithin(exact(sorted, q), sketch.quantile(q), name + " q=" + q);
+        }
+    }
+
+    private static void assertWithin(double expected, double actual, String message) {
+        assertEquals(expected, actual, Math.abs(expected) * ACCURACY, message);
+    }
+
+    // Mesma posição que o sketch usa: floor(q·(n-1)) na ordem crescente.
+    private static double exact(double[] sorted, double q) {
+        return sorted[(int) (q * (sorted.length - 1))];
+    }
+
+    private static double[] sample(ToDoubleFunction<RandomGenerator> distribution, int n,
+                                   long seed) {
+        RandomGenerator random = GA.RANDOM_FACTORY.create(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = distribution.applyAsDouble(random);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,34 @@
+package org.knapsack;
+
+import java.util.random.RandomGenerator;
+
+// Instâncias e cromossomos aleatórios compartilhados pelos testes.
+final class TestInstances
+{
+    private TestInstances() {}
+
+    static KnapsackInstance random(int size, long seed) {
+        return random(GA.RANDOM_FACTORY.create(seed), size, false);
+    }
+
+    // Pesos em [1, 100], valores em [1, 100] e capacidade de metade do peso total;
+    // 'integral' decide se pesos e capacidade são inteiros.
+    static KnapsackInstance random(RandomGenerator random, int size, boolean integral) {
+        double[] weights = new double[size];
+        double[] values = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = integral ? 1 + random.nextInt(100) : 1 + random.nextDouble() * 99;
+            values[i] = 1 + random.nextDouble() * 99;
+            total += weights[i];
+        }
+        double capacity = integral ? Math.floor(total / 2) : total / 2;
+        return new KnapsackInstance(weights, values, capacity);
+    }
+
+    static Chromosome randomChromosome(KnapsackInstance instance, RandomGenerator random) {
+        Chromosome chromosome = new Chromosome(instance);
+        chromosome.initialize(random);
+        return chromosome;
+    }
+}